@@ -0,0 +1,170 @@
+package com.github.sabomichal.springinjector.benchmark;
+
+import com.github.sabomichal.springinjector.SpringInjector;
+import com.github.sabomichal.springinjector.agent.InjectingTransformer;
+import org.aspectj.weaver.loadtime.Aj;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.annotation.Configurable;
+import org.springframework.beans.factory.aspectj.AnnotationBeanConfigurerAspect;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.aspectj.EnableSpringConfigured;
+import org.springframework.util.StreamUtils;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Constructor;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the injection agent. The transform benchmark measures the transformation of one class
+ * file, i.e. the startup overhead the agent adds per loaded class of the selected packages. The
+ * construct benchmarks compare an object injected by the transformed constructor with an object
+ * calling {@code inject(this)} itself. The weave and constructConfigurable benchmarks measure the
+ * same for Spring's {@code @Configurable} woven by the AspectJ load-time weaver, configured with the
+ * {@code @Configurable} aspect of {@code spring-aspects} only and restricted to the benchmark
+ * package, as the agent is.
+ *
+ * @author Michal Sabo
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AgentBenchmark {
+
+    private final InjectingTransformer transformer = new InjectingTransformer(
+            AgentBenchmark.class.getPackage().getName());
+
+    private AnnotationConfigApplicationContext context;
+    private byte[] classFile;
+    private Constructor<?> manualConstructor;
+    private Constructor<?> agentConstructor;
+    private Aj weaver;
+    private byte[] configurableClassFile;
+    private Constructor<?> configurableConstructor;
+
+    @Setup
+    public void setUp() throws Exception {
+        context = new AnnotationConfigApplicationContext(BenchmarkContext.class, SpringConfiguredContext.class);
+        classFile = readClass(AgentComponent.class.getName());
+        manualConstructor = ManualComponent.class.getConstructor();
+        agentConstructor = define(AgentComponent.class.getName(), transformer.transform(classFile)).getConstructor();
+
+        Path aopXml = Files.createTempFile("aop", ".xml");
+        aopXml.toFile().deleteOnExit();
+        Files.write(aopXml, ("<aspectj><weaver><include within=\"" + AgentBenchmark.class.getPackage().getName()
+                + "..*\"/></weaver><aspects><aspect name=\"" + AnnotationBeanConfigurerAspect.class.getName()
+                + "\"/></aspects></aspectj>").getBytes(StandardCharsets.UTF_8));
+        System.setProperty("org.aspectj.weaver.loadtime.configuration", aopXml.toUri().toString());
+        weaver = new Aj();
+        configurableClassFile = readClass(ConfigurableComponent.class.getName());
+        byte[] woven = weave();
+        if (Arrays.equals(woven, configurableClassFile)) {
+            throw new IllegalStateException("@Configurable class has not been woven");
+        }
+        configurableConstructor = define(ConfigurableComponent.class.getName(), woven).getConstructor();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] transform() {
+        return transformer.transform(classFile);
+    }
+
+    @Benchmark
+    public byte[] weave() {
+        return weaver.preProcess(ConfigurableComponent.class.getName(), configurableClassFile,
+                AgentBenchmark.class.getClassLoader(), null);
+    }
+
+    @Benchmark
+    public Object constructManual() throws Exception {
+        return manualConstructor.newInstance();
+    }
+
+    @Benchmark
+    public Object constructAgent() throws Exception {
+        return agentConstructor.newInstance();
+    }
+
+    @Benchmark
+    public Object constructConfigurable() throws Exception {
+        return configurableConstructor.newInstance();
+    }
+
+    /**
+     * Defines the class in a loader of its own, the other classes are loaded by the parent
+     */
+    private static Class<?> define(final String name, final byte[] classFile) {
+        return new ClassLoader(AgentBenchmark.class.getClassLoader()) {
+            Class<?> define() {
+                return defineClass(name, classFile, 0, classFile.length);
+            }
+        }.define();
+    }
+
+    private static byte[] readClass(final String name) throws IOException {
+        try (InputStream in = AgentBenchmark.class.getClassLoader().getResourceAsStream(name.replace('.', '/') + ".class")) {
+            return StreamUtils.copyToByteArray(in);
+        }
+    }
+
+    public static class ManualComponent {
+        @Inject
+        private BenchmarkContext.AnswerService answerService;
+        @Inject
+        private BenchmarkContext.GreetingService greetingService;
+
+        public ManualComponent() {
+            SpringInjector.get().inject(this);
+        }
+    }
+
+    public static class AgentComponent {
+        @Inject
+        private BenchmarkContext.AnswerService answerService;
+        @Inject
+        private BenchmarkContext.GreetingService greetingService;
+
+        public AgentComponent() {
+        }
+    }
+
+    @Configurable
+    public static class ConfigurableComponent {
+        @Inject
+        private BenchmarkContext.AnswerService answerService;
+        @Inject
+        private BenchmarkContext.GreetingService greetingService;
+
+        public ConfigurableComponent() {
+        }
+    }
+
+    @Configuration
+    @EnableSpringConfigured
+    public static class SpringConfiguredContext {
+    }
+}
@@ -0,0 +1,34 @@
+package com.github.sabomichal.springinjector.benchmark;
+
+import com.github.sabomichal.springinjector.SpringInjector;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Spring configuration shared by the benchmarks.
+ *
+ * @author Michal Sabo
+ */
+@Configuration
+@Import(SpringInjector.class)
+public class BenchmarkContext {
+
+    @Bean
+    public AnswerService answerService() {
+        return () -> 42;
+    }
+
+    @Bean
+    public GreetingService greetingService() {
+        return name -> "Hello " + name;
+    }
+
+    public interface AnswerService {
+        int answer();
+    }
+
+    public interface GreetingService {
+        String greet(String name);
+    }
+}
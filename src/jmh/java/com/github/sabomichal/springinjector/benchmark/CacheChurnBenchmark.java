@@ -0,0 +1,139 @@
+package com.github.sabomichal.springinjector.benchmark;
+
+import com.github.sabomichal.springinjector.CacheStats;
+import com.github.sabomichal.springinjector.ClockCache;
+import com.github.sabomichal.springinjector.ConcurrentMapCache;
+import com.github.sabomichal.springinjector.ICache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Cost of bounding the injector caches and of counting their hits. A hot set of keys is looked up
+ * while new keys keep being inserted, as when classes are generated at runtime. {@code cacheType} is
+ * {@code bounded} for a {@link ClockCache} of {@value #MAXIMUM_SIZE} entries, {@code unbounded} for
+ * the default cache and {@code map} for a plain {@link ConcurrentHashMap} without statistics, the
+ * baseline; {@code recordHits} does not apply to the baseline. The hot benchmark only looks up the
+ * hot set, the churn benchmark inserts a new key on every invocation and the mixed one does so on
+ * every tenth.
+ *
+ * @author Michal Sabo
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CacheChurnBenchmark {
+
+    private static final int HOT_KEYS = 256;
+    private static final int MAXIMUM_SIZE = 1024;
+
+    @Param({"map", "unbounded", "bounded"})
+    private String cacheType;
+
+    @Param({"false", "true"})
+    private boolean recordHits;
+
+    private ICache<Long, Object> cache;
+    private long hot;
+    private long next;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        CacheStats stats = new CacheStats(recordHits);
+        if ("bounded".equals(cacheType)) {
+            cache = new ClockCache<>(MAXIMUM_SIZE, stats);
+        } else if ("unbounded".equals(cacheType)) {
+            cache = new ConcurrentMapCache<>(stats);
+        } else {
+            cache = new MapCache<>();
+        }
+        for (long key = 0; key < HOT_KEYS; key++) {
+            cache.put(key, key);
+        }
+        next = HOT_KEYS;
+    }
+
+    @Benchmark
+    public Object hot() {
+        return lookup(hot++ % HOT_KEYS);
+    }
+
+    @Benchmark
+    public Object churn() {
+        return lookup(next++);
+    }
+
+    @Benchmark
+    public Object mixed() {
+        long key = hot++;
+        return lookup(key % 10 == 0 ? next++ : key % HOT_KEYS);
+    }
+
+    private Object lookup(final long key) {
+        Object value = cache.get(key);
+        if (value == null) {
+            value = key;
+            cache.putIfAbsent(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Plain map without statistics
+     */
+    private static class MapCache<K, V> implements ICache<K, V> {
+        private final ConcurrentMap<K, V> map = new ConcurrentHashMap<>();
+
+        @Override
+        public V get(final K key) {
+            return map.get(key);
+        }
+
+        @Override
+        public V put(final K key, final V value) {
+            return map.put(key, value);
+        }
+
+        @Override
+        public V putIfAbsent(final K key, final V value) {
+            return map.putIfAbsent(key, value);
+        }
+
+        @Override
+        public void forEach(final BiConsumer<? super K, ? super V> action) {
+            map.forEach(action);
+        }
+
+        @Override
+        public void clear() {
+            map.clear();
+        }
+
+        @Override
+        public int size() {
+            return map.size();
+        }
+
+        @Override
+        public CacheStats getStats() {
+            return null;
+        }
+    }
+}
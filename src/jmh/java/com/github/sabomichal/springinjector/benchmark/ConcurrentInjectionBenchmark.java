@@ -0,0 +1,75 @@
+package com.github.sabomichal.springinjector.benchmark;
+
+import com.github.sabomichal.springinjector.SpringInjector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import javax.inject.Inject;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link SpringInjector#inject(Object)} and of calls on shared lazy init proxies
+ * when run from several threads at once. Run it with an increasing number of threads to get the
+ * scaling curve, e.g. {@code -Djmh.args="ConcurrentInjection -t 1"}, then {@code -t 2}, {@code -t 4}
+ * up to {@code -t max}.
+ *
+ * @author Michal Sabo
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConcurrentInjectionBenchmark {
+
+    private AnnotationConfigApplicationContext context;
+    private Injected shared;
+
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(BenchmarkContext.class);
+        shared = new Injected();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object inject() {
+        return new Injected();
+    }
+
+    @Benchmark
+    public int invoke() {
+        return shared.call();
+    }
+
+    public static class Injected {
+        @Inject
+        private BenchmarkContext.AnswerService answerService;
+
+        @Inject
+        private BenchmarkContext.GreetingService greetingService;
+
+        public Injected() {
+            SpringInjector.get().inject(this);
+        }
+
+        int call() {
+            return answerService.answer() + greetingService.greet("world").length();
+        }
+    }
+}
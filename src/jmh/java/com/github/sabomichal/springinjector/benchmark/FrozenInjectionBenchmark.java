@@ -0,0 +1,69 @@
+package com.github.sabomichal.springinjector.benchmark;
+
+import com.github.sabomichal.springinjector.SpringInjector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import javax.inject.Inject;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Injection of a warmed up class with the mutable caches and after {@link SpringInjector#freeze()}.
+ *
+ * @author Michal Sabo
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FrozenInjectionBenchmark {
+
+    @Param({"false", "true"})
+    private boolean frozen;
+
+    private AnnotationConfigApplicationContext context;
+
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(BenchmarkContext.class);
+        new Injected();
+        if (frozen) {
+            SpringInjector.get().freeze();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object inject() {
+        return new Injected();
+    }
+
+    public static class Injected {
+        @Inject
+        private BenchmarkContext.AnswerService answerService;
+
+        @Inject
+        private BenchmarkContext.GreetingService greetingService;
+
+        public Injected() {
+            SpringInjector.get().inject(this);
+        }
+    }
+}
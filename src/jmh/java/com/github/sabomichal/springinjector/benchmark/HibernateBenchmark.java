@@ -0,0 +1,153 @@
+package com.github.sabomichal.springinjector.benchmark;
+
+import com.github.sabomichal.springinjector.HibernateInjectionIntegrator;
+import com.github.sabomichal.springinjector.SpringInjector;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.BootstrapServiceRegistryBuilder;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import javax.inject.Inject;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.PostLoad;
+import javax.persistence.Transient;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query of 100000 rows from an in-memory H2 database. The entities are injected by the
+ * {@link HibernateInjectionIntegrator}, or by themselves in a {@code @PostLoad} callback, or not at
+ * all as the baseline. {@code promotionThreshold} 0 disables the promotion of the self injecting
+ * class.
+ *
+ * @author Michal Sabo
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HibernateBenchmark {
+
+    private static final int ROWS = 100000;
+
+    @Param({"0", "1000"})
+    private int promotionThreshold;
+
+    private AnnotationConfigApplicationContext context;
+    private SessionFactory sessionFactory;
+
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(BenchmarkContext.class);
+        SpringInjector.get().setPromotionThreshold(promotionThreshold);
+        sessionFactory = new MetadataSources(new StandardServiceRegistryBuilder(
+                new BootstrapServiceRegistryBuilder().applyIntegrator(new HibernateInjectionIntegrator()).build())
+                .applySetting("hibernate.connection.url", "jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1")
+                .applySetting("hibernate.hbm2ddl.auto", "create-drop")
+                .build())
+                .addAnnotatedClass(PlainRow.class)
+                .addAnnotatedClass(InjectedRow.class)
+                .addAnnotatedClass(SelfInjectedRow.class)
+                .buildMetadata()
+                .buildSessionFactory();
+
+        try (Session session = sessionFactory.openSession()) {
+            session.beginTransaction();
+            for (String table : new String[]{"PlainRow", "InjectedRow", "SelfInjectedRow"}) {
+                session.createNativeQuery("insert into " + table + " (id, name) select x, 'row' || x from system_range(1, " + ROWS + ")")
+                        .executeUpdate();
+            }
+            session.getTransaction().commit();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+        context.close();
+    }
+
+    @Benchmark
+    public Object plain() {
+        return query(PlainRow.class);
+    }
+
+    @Benchmark
+    public Object listener() {
+        return query(InjectedRow.class);
+    }
+
+    @Benchmark
+    public Object postLoad() {
+        return query(SelfInjectedRow.class);
+    }
+
+    private List<?> query(final Class<?> entityClass) {
+        try (Session session = sessionFactory.openSession()) {
+            session.setDefaultReadOnly(true);
+            return session.createQuery("from " + entityClass.getSimpleName(), entityClass).getResultList();
+        }
+    }
+
+    @Entity(name = "PlainRow")
+    public static class PlainRow {
+        @Id
+        private Long id;
+
+        private String name;
+    }
+
+    @Entity(name = "InjectedRow")
+    public static class InjectedRow {
+        @Id
+        private Long id;
+
+        private String name;
+
+        @Inject
+        @Transient
+        private BenchmarkContext.AnswerService answerService;
+
+        @Inject
+        @Transient
+        private BenchmarkContext.GreetingService greetingService;
+    }
+
+    @Entity(name = "SelfInjectedRow")
+    public static class SelfInjectedRow {
+        @Id
+        private Long id;
+
+        private String name;
+
+        @Inject
+        @Transient
+        private BenchmarkContext.AnswerService answerService;
+
+        @Inject
+        @Transient
+        private BenchmarkContext.GreetingService greetingService;
+
+        @PostLoad
+        void inject() {
+            SpringInjector.get().inject(this);
+        }
+    }
+}
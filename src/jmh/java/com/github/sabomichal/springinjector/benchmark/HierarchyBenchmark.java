@@ -0,0 +1,153 @@
+package com.github.sabomichal.springinjector.benchmark;
+
+import com.github.sabomichal.springinjector.SpringInjector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import javax.inject.Inject;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * First-inject latency of classes sharing a deep hierarchy: a base class declaring most of the
+ * injectable fields, two intermediate classes and eight concrete subclasses. The cold benchmark
+ * clears the injector caches before every invocation and injects one instance of every concrete
+ * class, so it measures the metadata discovery; with {@code -prof gc} its allocation per operation
+ * approximates the metadata heap.
+ *
+ * @author Michal Sabo
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HierarchyBenchmark {
+
+    private static final Supplier<?>[] LEAVES = new Supplier[]{
+            Leaf0::new, Leaf1::new, Leaf2::new, Leaf3::new, Leaf4::new, Leaf5::new, Leaf6::new, Leaf7::new};
+
+    private AnnotationConfigApplicationContext context;
+
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(BenchmarkContext.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class ColdCaches {
+        @Setup(Level.Invocation)
+        public void clear() {
+            SpringInjector.get().clearCache();
+        }
+    }
+
+    @Benchmark
+    public void cold(ColdCaches caches, Blackhole blackhole) {
+        injectLeaves(blackhole);
+    }
+
+    @Benchmark
+    public void warm(Blackhole blackhole) {
+        injectLeaves(blackhole);
+    }
+
+    private static void injectLeaves(Blackhole blackhole) {
+        for (Supplier<?> leaf : LEAVES) {
+            Object object = leaf.get();
+            SpringInjector.get().inject(object);
+            blackhole.consume(object);
+        }
+    }
+
+    public abstract static class Base {
+        @Inject
+        private BenchmarkContext.AnswerService answer0;
+        @Inject
+        private BenchmarkContext.AnswerService answer1;
+        @Inject
+        private BenchmarkContext.AnswerService answer2;
+        @Inject
+        private BenchmarkContext.AnswerService answer3;
+        @Inject
+        private BenchmarkContext.GreetingService greeting0;
+        @Inject
+        private BenchmarkContext.GreetingService greeting1;
+        @Inject
+        private BenchmarkContext.GreetingService greeting2;
+        @Inject
+        private BenchmarkContext.GreetingService greeting3;
+    }
+
+    public abstract static class Middle extends Base {
+        @Inject
+        private BenchmarkContext.AnswerService middleAnswer;
+        @Inject
+        private BenchmarkContext.GreetingService middleGreeting;
+    }
+
+    public abstract static class Lower extends Middle {
+        @Inject
+        private BenchmarkContext.AnswerService lowerAnswer;
+        @Inject
+        private BenchmarkContext.GreetingService lowerGreeting;
+    }
+
+    public static class Leaf0 extends Lower {
+        @Inject
+        private BenchmarkContext.AnswerService leafAnswer;
+    }
+
+    public static class Leaf1 extends Lower {
+        @Inject
+        private BenchmarkContext.AnswerService leafAnswer;
+    }
+
+    public static class Leaf2 extends Lower {
+        @Inject
+        private BenchmarkContext.AnswerService leafAnswer;
+    }
+
+    public static class Leaf3 extends Lower {
+        @Inject
+        private BenchmarkContext.AnswerService leafAnswer;
+    }
+
+    public static class Leaf4 extends Lower {
+        @Inject
+        private BenchmarkContext.GreetingService leafGreeting;
+    }
+
+    public static class Leaf5 extends Lower {
+        @Inject
+        private BenchmarkContext.GreetingService leafGreeting;
+    }
+
+    public static class Leaf6 extends Lower {
+        @Inject
+        private BenchmarkContext.GreetingService leafGreeting;
+    }
+
+    public static class Leaf7 extends Lower {
+        @Inject
+        private BenchmarkContext.GreetingService leafGreeting;
+    }
+}
@@ -0,0 +1,105 @@
+package com.github.sabomichal.springinjector.benchmark;
+
+import com.github.sabomichal.springinjector.InjectWith;
+import com.github.sabomichal.springinjector.InjectionEngine;
+import com.github.sabomichal.springinjector.SpringInjector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import javax.inject.Inject;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link InjectionEngine#PROXY} engine ({@code AnnotFieldValueFactory} with lazy init
+ * proxies) with the {@link InjectionEngine#AUTOWIRE} engine (spring's cached injection metadata),
+ * both for the injection itself and for calls on the injected dependencies.
+ *
+ * @author Michal Sabo
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InjectionEngineBenchmark {
+
+    private AnnotationConfigApplicationContext context;
+    private ProxyInjected proxyInjected;
+    private AutowireInjected autowireInjected;
+
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(BenchmarkContext.class);
+        proxyInjected = new ProxyInjected();
+        autowireInjected = new AutowireInjected();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object injectProxy() {
+        return new ProxyInjected();
+    }
+
+    @Benchmark
+    public Object injectAutowire() {
+        return new AutowireInjected();
+    }
+
+    @Benchmark
+    public int invokeProxy() {
+        return proxyInjected.call();
+    }
+
+    @Benchmark
+    public int invokeAutowire() {
+        return autowireInjected.call();
+    }
+
+    public static class ProxyInjected {
+        @Inject
+        private BenchmarkContext.AnswerService answerService;
+
+        @Inject
+        private BenchmarkContext.GreetingService greetingService;
+
+        public ProxyInjected() {
+            SpringInjector.get().inject(this);
+        }
+
+        int call() {
+            return answerService.answer() + greetingService.greet("world").length();
+        }
+    }
+
+    @InjectWith(InjectionEngine.AUTOWIRE)
+    public static class AutowireInjected {
+        @Inject
+        private BenchmarkContext.AnswerService answerService;
+
+        @Inject
+        private BenchmarkContext.GreetingService greetingService;
+
+        public AutowireInjected() {
+            SpringInjector.get().inject(this);
+        }
+
+        int call() {
+            return answerService.answer() + greetingService.greet("world").length();
+        }
+    }
+}
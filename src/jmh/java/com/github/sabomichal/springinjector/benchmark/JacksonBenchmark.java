@@ -0,0 +1,107 @@
+package com.github.sabomichal.springinjector.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.github.sabomichal.springinjector.JacksonInjectionModule;
+import com.github.sabomichal.springinjector.SpringInjector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import javax.inject.Inject;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deserialization of a JSON array of 1000 objects, injected by their constructors and by the
+ * {@link JacksonInjectionModule}, and of objects not injected at all as the baseline.
+ * {@code promotionThreshold} 0 disables the promotion of the injected classes.
+ *
+ * @author Michal Sabo
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JacksonBenchmark {
+
+    private static final int SIZE = 1000;
+
+    @Param({"0", "1000"})
+    private int promotionThreshold;
+
+    private AnnotationConfigApplicationContext context;
+    private String json;
+    private ObjectReader plain;
+    private ObjectReader constructor;
+    private ObjectReader module;
+
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(BenchmarkContext.class);
+        SpringInjector.get().setPromotionThreshold(promotionThreshold);
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < SIZE; i++) {
+            builder.append(i == 0 ? "" : ",").append("{\"id\":").append(i).append('}');
+        }
+        json = builder.append(']').toString();
+
+        plain = new ObjectMapper().readerFor(new TypeReference<List<Plain>>() {});
+        constructor = new ObjectMapper().readerFor(new TypeReference<List<SelfInjected>>() {});
+        module = new ObjectMapper().registerModule(new JacksonInjectionModule())
+                .readerFor(new TypeReference<List<Injected>>() {});
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object plain() throws Exception {
+        return plain.readValue(json);
+    }
+
+    @Benchmark
+    public Object constructor() throws Exception {
+        return constructor.readValue(json);
+    }
+
+    @Benchmark
+    public Object module() throws Exception {
+        return module.readValue(json);
+    }
+
+    public static class Plain {
+        public int id;
+    }
+
+    public static class Injected {
+        public int id;
+
+        @Inject
+        private BenchmarkContext.AnswerService answerService;
+
+        @Inject
+        private BenchmarkContext.GreetingService greetingService;
+    }
+
+    public static class SelfInjected extends Injected {
+        public SelfInjected() {
+            SpringInjector.get().inject(this);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.github.sabomichal.springinjector.benchmark;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import com.github.sabomichal.springinjector.KryoSerializers;
+import com.github.sabomichal.springinjector.SpringInjector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.util.SerializationUtils;
+
+import javax.inject.Inject;
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round trip of an object holding two lazy init proxies, serialized by Java serialization and by
+ * Kryo with the serializers of {@link KryoSerializers}. The serialized sizes are printed at setup.
+ *
+ * @author Michal Sabo
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class KryoBenchmark {
+
+    private AnnotationConfigApplicationContext context;
+    private Kryo kryo;
+    private Output output;
+    private Holder holder;
+
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(BenchmarkContext.class);
+        kryo = KryoSerializers.createKryo();
+        kryo.register(Holder.class);
+        output = new Output(1024, -1);
+        holder = new Holder();
+
+        System.out.println("Java serialization: " + SerializationUtils.serialize(holder).length
+                + " bytes, Kryo: " + kryoWrite().length + " bytes");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object javaRoundTrip() {
+        return SerializationUtils.deserialize(SerializationUtils.serialize(holder));
+    }
+
+    @Benchmark
+    public Object kryoRoundTrip() {
+        return kryo.readObject(new Input(kryoWrite()), Holder.class);
+    }
+
+    private byte[] kryoWrite() {
+        output.reset();
+        kryo.writeObject(output, holder);
+        return output.toBytes();
+    }
+
+    public static class Holder implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        @Inject
+        private BenchmarkContext.AnswerService answerService;
+        @Inject
+        private BenchmarkContext.GreetingService greetingService;
+
+        public Holder() {
+            SpringInjector.get().inject(this);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.github.sabomichal.springinjector.benchmark;
+
+import com.github.sabomichal.springinjector.SpringInjector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigUtils;
+import org.springframework.context.support.GenericApplicationContext;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Injection latency in large synthetic application contexts. The contexts form a parent/child
+ * chain of the given depth, the filler beans are spread evenly over it. The injected service lives
+ * in the root context, generic repositories (one per type argument, up to the fan-out) live in the
+ * leaf context next to the injector.
+ * <p>
+ * The cold benchmarks clear the injector caches before every invocation, so they measure bean name
+ * resolution, locator and proxy creation and the first target lookup; the warm benchmarks measure
+ * injection with populated caches. Add {@code -prof gc} to the JMH arguments for allocation per
+ * operation.
+ *
+ * @author Michal Sabo
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class LargeContextBenchmark {
+
+    @SuppressWarnings("unchecked")
+    private static final Supplier<Repository<?>>[] REPOSITORIES = new Supplier[]{
+            StringRepository::new, IntegerRepository::new, LongRepository::new, DoubleRepository::new,
+            FloatRepository::new, ShortRepository::new, ByteRepository::new, CharacterRepository::new};
+
+    @Param({"1000", "10000", "100000"})
+    private int beanCount;
+
+    @Param({"1", "8"})
+    private int fanOut;
+
+    @Param({"1", "4"})
+    private int depth;
+
+    private final List<GenericApplicationContext> contexts = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        GenericApplicationContext parent = null;
+        for (int level = 0; level < depth; level++) {
+            GenericApplicationContext context = new GenericApplicationContext();
+            context.setParent(parent);
+            for (int i = level; i < beanCount; i += depth) {
+                context.registerBean("filler" + i, Filler.class, Filler::new, bd -> bd.setLazyInit(true));
+            }
+            if (level == 0) {
+                context.registerBean("answerService", BenchmarkContext.AnswerService.class, () -> () -> 42);
+            }
+            if (level == depth - 1) {
+                for (int i = 0; i < fanOut; i++) {
+                    register(context, "repository" + i, REPOSITORIES[i]);
+                }
+                AnnotationConfigUtils.registerAnnotationConfigProcessors(context);
+                context.registerBean(SpringInjector.class);
+            }
+            context.refresh();
+            contexts.add(context);
+            parent = context;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void register(GenericApplicationContext context, String name, Supplier<T> supplier) {
+        T bean = supplier.get();
+        context.registerBean(name, (Class<T>) bean.getClass(), supplier);
+    }
+
+    @TearDown
+    public void tearDown() {
+        for (int i = contexts.size() - 1; i >= 0; i--) {
+            contexts.get(i).close();
+        }
+        contexts.clear();
+    }
+
+    @State(Scope.Thread)
+    public static class ColdCaches {
+        @Setup(Level.Invocation)
+        public void clear() {
+            SpringInjector.get().clearCache();
+        }
+    }
+
+    @Benchmark
+    public int cold(ColdCaches caches) {
+        return new Injected().call();
+    }
+
+    @Benchmark
+    public int warm() {
+        return new Injected().call();
+    }
+
+    public static class Injected {
+        @Inject
+        private BenchmarkContext.AnswerService answerService;
+
+        @Inject
+        private Repository<String> repository;
+
+        public Injected() {
+            SpringInjector.get().inject(this);
+        }
+
+        int call() {
+            return answerService.answer() + repository.size();
+        }
+    }
+
+    public static class Filler {
+    }
+
+    public interface Repository<T> {
+        int size();
+    }
+
+    public static class StringRepository implements Repository<String> {
+        @Override
+        public int size() {
+            return 1;
+        }
+    }
+
+    public static class IntegerRepository implements Repository<Integer> {
+        @Override
+        public int size() {
+            return 2;
+        }
+    }
+
+    public static class LongRepository implements Repository<Long> {
+        @Override
+        public int size() {
+            return 3;
+        }
+    }
+
+    public static class DoubleRepository implements Repository<Double> {
+        @Override
+        public int size() {
+            return 4;
+        }
+    }
+
+    public static class FloatRepository implements Repository<Float> {
+        @Override
+        public int size() {
+            return 5;
+        }
+    }
+
+    public static class ShortRepository implements Repository<Short> {
+        @Override
+        public int size() {
+            return 6;
+        }
+    }
+
+    public static class ByteRepository implements Repository<Byte> {
+        @Override
+        public int size() {
+            return 7;
+        }
+    }
+
+    public static class CharacterRepository implements Repository<Character> {
+        @Override
+        public int size() {
+            return 8;
+        }
+    }
+}
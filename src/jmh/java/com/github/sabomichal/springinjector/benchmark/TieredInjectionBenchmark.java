@@ -0,0 +1,130 @@
+package com.github.sabomichal.springinjector.benchmark;
+
+import com.github.sabomichal.springinjector.SpringInjector;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.commons.ClassRemapper;
+import org.objectweb.asm.commons.SimpleRemapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.util.StreamUtils;
+
+import javax.inject.Inject;
+import java.io.InputStream;
+import java.lang.reflect.Constructor;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Long tail workload of tiered injection: {@value #CLASSES} classes are injected with a Zipf
+ * distribution, a few classes get most of the injections. The classes are renamed copies of one
+ * class. {@code promotionThreshold} 0 never promotes, 1000 promotes
+ * nearly all the classes, 100000 the head of the distribution only.
+ *
+ * @author Michal Sabo
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TieredInjectionBenchmark {
+
+    private static final int CLASSES = 1000;
+    private static final int SEQUENCE = 1 << 16;
+
+    @Param({"0", "1000", "100000"})
+    private int promotionThreshold;
+
+    private AnnotationConfigApplicationContext context;
+    private Constructor<?>[] constructors;
+    private int[] sequence;
+    private int next;
+
+    @Setup
+    public void setUp() throws Exception {
+        context = new AnnotationConfigApplicationContext(BenchmarkContext.class);
+        SpringInjector.get().setPromotionThreshold(promotionThreshold);
+
+        byte[] bytes;
+        try (InputStream in = Injected.class.getResourceAsStream("TieredInjectionBenchmark$Injected.class")) {
+            bytes = StreamUtils.copyToByteArray(in);
+        }
+        CopyingClassLoader classLoader = new CopyingClassLoader();
+        constructors = new Constructor<?>[CLASSES];
+        for (int i = 0; i < CLASSES; i++) {
+            constructors[i] = classLoader.defineCopy(bytes, Injected.class.getName() + i).getConstructor();
+        }
+
+        // index i is drawn with the probability proportional to 1 / (i + 1)
+        double[] cumulative = new double[CLASSES];
+        double sum = 0;
+        for (int i = 0; i < CLASSES; i++) {
+            sum += 1.0 / (i + 1);
+            cumulative[i] = sum;
+        }
+        Random random = new Random(42);
+        sequence = new int[SEQUENCE];
+        for (int i = 0; i < SEQUENCE; i++) {
+            double r = random.nextDouble() * sum;
+            int index = 0;
+            while (cumulative[index] < r) {
+                index++;
+            }
+            sequence[i] = index;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.out.println("\npromoted classes: " + SpringInjector.get().getPromotionCount());
+        context.close();
+    }
+
+    @Benchmark
+    public Object inject() throws Exception {
+        return constructors[sequence[next++ & (SEQUENCE - 1)]].newInstance();
+    }
+
+    public static class Injected {
+        @Inject
+        private BenchmarkContext.AnswerService answerService;
+
+        @Inject
+        private BenchmarkContext.GreetingService greetingService;
+
+        public Injected() {
+            SpringInjector.get().inject(this);
+        }
+    }
+
+    /**
+     * Defines renamed copies of the {@link Injected} class
+     */
+    private static class CopyingClassLoader extends ClassLoader {
+        CopyingClassLoader() {
+            super(TieredInjectionBenchmark.class.getClassLoader());
+        }
+
+        Class<?> defineCopy(final byte[] bytes, final String name) {
+            ClassWriter writer = new ClassWriter(0);
+            new ClassReader(bytes).accept(new ClassRemapper(writer, new SimpleRemapper(
+                    Type.getInternalName(Injected.class), name.replace('.', '/'))), 0);
+            byte[] copy = writer.toByteArray();
+            return defineClass(name, copy, 0, copy.length);
+        }
+    }
+}
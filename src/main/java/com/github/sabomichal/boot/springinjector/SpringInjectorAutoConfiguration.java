@@ -0,0 +1,65 @@
+package com.github.sabomichal.boot.springinjector;
+
+import com.github.sabomichal.springinjector.SpringInjector;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.Environment;
+
+/**
+ * Spring Boot auto-configuration of {@link SpringInjector}. Registers the injector unless the
+ * application defines one, configures it by the {@code spring-injector} properties, warms up the
+ * configured packages and, with the Actuator on the class path, exposes the
+ * {@value SpringInjectorEndpoint#ID} endpoint.
+ *
+ * @author Michal Sabo
+ * @see SpringInjectorProperties
+ */
+@AutoConfiguration
+@EnableConfigurationProperties(SpringInjectorProperties.class)
+public class SpringInjectorAutoConfiguration {
+
+    /**
+     * The configurer is a post processor, created before the configuration properties are bound,
+     * so it binds them itself
+     *
+     * @param environment environment
+     * @return configurer
+     */
+    @Bean
+    public static SpringInjectorConfigurer springInjectorConfigurer(final Environment environment) {
+        return new SpringInjectorConfigurer(Binder.get(environment)
+                .bindOrCreate(SpringInjectorProperties.PREFIX, SpringInjectorProperties.class));
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public SpringInjectorWarmUp springInjectorWarmUp(final SpringInjector injector,
+                                                     final SpringInjectorProperties properties) {
+        return new SpringInjectorWarmUp(injector, properties.getWarmUpPackages());
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnMissingBean(SpringInjector.class)
+    @Import(SpringInjector.class)
+    static class InjectorConfiguration {
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass({Endpoint.class, ConditionalOnAvailableEndpoint.class})
+    static class EndpointConfiguration {
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnAvailableEndpoint
+        public SpringInjectorEndpoint springInjectorEndpoint(final SpringInjector injector) {
+            return new SpringInjectorEndpoint(injector);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.github.sabomichal.boot.springinjector;
+
+import com.github.sabomichal.springinjector.CacheStats;
+import com.github.sabomichal.springinjector.Caches;
+import com.github.sabomichal.springinjector.ClockCache;
+import com.github.sabomichal.springinjector.ConcurrentMapCache;
+import com.github.sabomichal.springinjector.ICache;
+import com.github.sabomichal.springinjector.ICacheFactory;
+import com.github.sabomichal.springinjector.SpringInjector;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessor;
+import org.springframework.util.StringUtils;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Applies the {@link SpringInjectorProperties} to the injector bean, whether auto-configured or
+ * component scanned. The caches are configured before the injector is instantiated, as they are
+ * created with it: the cache factory of {@link Caches} is replaced by a factory bounding the caches
+ * by the properties, and restored when the application context is closed. The static caches shared
+ * by all injectors pick up the factory when the injector clears its caches on refresh. The factory
+ * is global, with several application contexts at once the one created last configures the caches.
+ *
+ * @author Michal Sabo
+ */
+public class SpringInjectorConfigurer implements InstantiationAwareBeanPostProcessor, BeanFactoryAware,
+        DisposableBean {
+
+    private final SpringInjectorProperties properties;
+    private BeanFactory beanFactory;
+    private ICacheFactory cacheFactory;
+    private ICacheFactory previousCacheFactory;
+
+    /**
+     * Constructor
+     *
+     * @param properties injector properties
+     */
+    public SpringInjectorConfigurer(final SpringInjectorProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public void setBeanFactory(final BeanFactory beanFactory) {
+        this.beanFactory = beanFactory;
+    }
+
+    @Override
+    public Object postProcessBeforeInstantiation(final Class<?> beanClass, final String beanName) throws BeansException {
+        if (beanClass == SpringInjector.class && cacheFactory == null) {
+            previousCacheFactory = Caches.getFactory();
+            cacheFactory = new PropertiesCacheFactory(properties.getCache());
+            Caches.setFactory(cacheFactory);
+        }
+        return null;
+    }
+
+    /**
+     * Restores the cache factory replaced by this configurer, unless it has been replaced again
+     */
+    @Override
+    public void destroy() {
+        if (cacheFactory != null && Caches.getFactory() == cacheFactory) {
+            Caches.setFactory(previousCacheFactory);
+        }
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(final Object bean, final String beanName) throws BeansException {
+        if (bean instanceof SpringInjector) {
+            SpringInjector injector = (SpringInjector) bean;
+            injector.setDefaultEngine(properties.getDefaultEngine());
+            injector.setPromotionThreshold(properties.getPromotionThreshold());
+            if (StringUtils.hasText(properties.getExecutorBean())) {
+                injector.setExecutor(beanFactory.getBean(properties.getExecutorBean(), Executor.class));
+            }
+        }
+        return bean;
+    }
+
+    /**
+     * Creates caches bounded by the properties
+     */
+    private static class PropertiesCacheFactory implements ICacheFactory {
+        private final SpringInjectorProperties.Cache properties;
+
+        PropertiesCacheFactory(final SpringInjectorProperties.Cache properties) {
+            this.properties = properties;
+        }
+
+        @Override
+        public <K, V> ICache<K, V> createCache(final String name, final CacheStats stats) {
+            int maximumSize = properties.getMaximumSizes().getOrDefault(name, properties.getMaximumSize());
+            return maximumSize > 0 ? new ClockCache<>(maximumSize, stats) : new ConcurrentMapCache<>(stats);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.github.sabomichal.boot.springinjector;
+
+import com.github.sabomichal.springinjector.InjectorDiagnostics;
+import com.github.sabomichal.springinjector.SpringInjector;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+/**
+ * Actuator endpoint reporting the caches, proxies and promotions of the injector. Deleting clears
+ * the caches.
+ *
+ * @author Michal Sabo
+ * @see InjectorDiagnostics
+ */
+@Endpoint(id = SpringInjectorEndpoint.ID)
+public class SpringInjectorEndpoint {
+    public static final String ID = "springinjector";
+
+    private final SpringInjector injector;
+
+    /**
+     * Constructor
+     *
+     * @param injector injector
+     */
+    public SpringInjectorEndpoint(final SpringInjector injector) {
+        this.injector = injector;
+    }
+
+    /**
+     * @return snapshot of the injector
+     */
+    @ReadOperation
+    public InjectorDiagnostics diagnostics() {
+        return injector.getDiagnostics();
+    }
+
+    /**
+     * Discards all cached metadata, bean names, locators, proxies and values
+     */
+    @DeleteOperation
+    public void clearCache() {
+        injector.clearCache();
+    }
+}
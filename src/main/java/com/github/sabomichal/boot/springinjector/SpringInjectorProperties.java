@@ -0,0 +1,109 @@
+package com.github.sabomichal.boot.springinjector;
+
+import com.github.sabomichal.springinjector.InjectionEngine;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Configuration of {@link com.github.sabomichal.springinjector.SpringInjector} by the
+ * {@code spring-injector} properties.
+ *
+ * @author Michal Sabo
+ */
+@ConfigurationProperties(prefix = SpringInjectorProperties.PREFIX)
+public class SpringInjectorProperties {
+    public static final String PREFIX = "spring-injector";
+
+    /**
+     * Engine used for classes not annotated with {@code @InjectWith}.
+     */
+    private InjectionEngine defaultEngine = InjectionEngine.PROXY;
+
+    /**
+     * Number of injections of a class after which the class is promoted, 0 to never promote.
+     */
+    private int promotionThreshold = 1000;
+
+    /**
+     * Packages whose classes are warmed up in the background once the application is ready.
+     */
+    private List<String> warmUpPackages = new ArrayList<>();
+
+    /**
+     * Name of the executor bean used for asynchronous injection, resolution of proxies and warm-up.
+     */
+    private String executorBean;
+
+    private final Cache cache = new Cache();
+
+    public InjectionEngine getDefaultEngine() {
+        return defaultEngine;
+    }
+
+    public void setDefaultEngine(InjectionEngine defaultEngine) {
+        this.defaultEngine = defaultEngine;
+    }
+
+    public int getPromotionThreshold() {
+        return promotionThreshold;
+    }
+
+    public void setPromotionThreshold(int promotionThreshold) {
+        this.promotionThreshold = promotionThreshold;
+    }
+
+    public List<String> getWarmUpPackages() {
+        return warmUpPackages;
+    }
+
+    public void setWarmUpPackages(List<String> warmUpPackages) {
+        this.warmUpPackages = warmUpPackages;
+    }
+
+    public String getExecutorBean() {
+        return executorBean;
+    }
+
+    public void setExecutorBean(String executorBean) {
+        this.executorBean = executorBean;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    /**
+     * Bounds of the caches, see {@link com.github.sabomichal.springinjector.Caches}
+     */
+    public static class Cache {
+        /**
+         * Maximum number of entries of each cache, 0 for unbounded caches.
+         */
+        private int maximumSize;
+
+        /**
+         * Maximum number of entries by the cache name, overriding the maximum size.
+         */
+        private Map<String, Integer> maximumSizes = new LinkedHashMap<>();
+
+        public int getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(int maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Map<String, Integer> getMaximumSizes() {
+            return maximumSizes;
+        }
+
+        public void setMaximumSizes(Map<String, Integer> maximumSizes) {
+            this.maximumSizes = maximumSizes;
+        }
+    }
+}
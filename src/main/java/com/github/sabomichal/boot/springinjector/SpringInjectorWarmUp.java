@@ -0,0 +1,79 @@
+package com.github.sabomichal.boot.springinjector;
+
+import com.github.sabomichal.springinjector.SpringInjector;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.util.ClassUtils;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Warms up the classes of the configured packages once the application is ready, on the executor
+ * of the injector. Classes failing to warm up, e.g. injecting beans not defined in the context, are
+ * skipped; they fail when injected.
+ *
+ * @author Michal Sabo
+ * @see SpringInjector#warmUp(Class)
+ */
+public class SpringInjectorWarmUp implements ApplicationListener<ApplicationReadyEvent> {
+    private static final Log LOG = LogFactory.getLog(SpringInjectorWarmUp.class);
+
+    private final SpringInjector injector;
+    private final List<String> packages;
+    private volatile CompletableFuture<Void> completion = CompletableFuture.completedFuture(null);
+
+    /**
+     * Constructor
+     *
+     * @param injector injector
+     * @param packages packages to scan
+     */
+    public SpringInjectorWarmUp(final SpringInjector injector, final List<String> packages) {
+        this.injector = injector;
+        this.packages = packages;
+    }
+
+    @Override
+    public void onApplicationEvent(final ApplicationReadyEvent event) {
+        if (packages.isEmpty()) {
+            return;
+        }
+        ClassLoader classLoader = event.getApplicationContext().getClassLoader();
+        completion = CompletableFuture.runAsync(() -> warmUp(classLoader), injector.getExecutor());
+    }
+
+    /**
+     * @return completion of the warm-up started when the application became ready
+     */
+    public CompletableFuture<Void> getCompletion() {
+        return completion;
+    }
+
+    private void warmUp(final ClassLoader classLoader) {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false) {
+            @Override
+            protected boolean isCandidateComponent(final AnnotatedBeanDefinition beanDefinition) {
+                // injected objects are not beans, any concrete class may have injectable fields
+                return beanDefinition.getMetadata().isConcrete();
+            }
+        };
+        scanner.setResourceLoader(new DefaultResourceLoader(classLoader));
+        scanner.addIncludeFilter((reader, factory) -> true);
+        for (String basePackage : packages) {
+            for (BeanDefinition candidate : scanner.findCandidateComponents(basePackage)) {
+                try {
+                    injector.warmUp(ClassUtils.resolveClassName(candidate.getBeanClassName(), classLoader));
+                } catch (RuntimeException | LinkageError e) {
+                    LOG.debug("Could not warm up class [" + candidate.getBeanClassName() + "]", e);
+                }
+            }
+        }
+    }
+}
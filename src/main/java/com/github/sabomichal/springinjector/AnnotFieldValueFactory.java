@@ -3,14 +3,18 @@ package com.github.sabomichal.springinjector;
 
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.BeanFactoryUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.beans.factory.support.AbstractBeanDefinition;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.support.AbstractApplicationContext;
 import org.springframework.core.ResolvableType;
+import org.springframework.util.ClassUtils;
 import org.springframework.util.StringUtils;
 
+import javax.annotation.Resource;
 import javax.inject.Inject;
 import javax.inject.Named;
 import java.lang.reflect.Field;
@@ -19,12 +23,18 @@ import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.StringJoiner;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
 
 /**
  * This class is usually used by the {@link SpringInjector} to inject spring beans. This class will also
- * utilize caching mechanism (caching singleton beans and bean names) to improve inject performance.
+ * utilize caching mechanism (caching bean locators per field, proxies of singleton and scoped beans
+ * and bean names) to improve inject performance.
+ * <p>
+ * Supported are fields annotated with {@link Inject}, {@link Autowired} and, if present on the
+ * classpath, {@link Resource}. The bean name can be given by {@link Named}, {@link Qualifier} or
+ * {@link Resource#name()}, otherwise the bean is looked up by type. Like in spring, a {@link Resource}
+ * without a name is looked up by the name of the field first, and fields annotated with
+ * {@code @Autowired(required = false)} are left {@code null} if there is no bean to inject.
  *
  * @author Igor Vaynberg (ivaynberg)
  * @author Istvan Devai
@@ -34,8 +44,11 @@ import java.util.concurrent.ConcurrentMap;
  */
 public class AnnotFieldValueFactory implements IFieldValueFactory {
 
-    private final ConcurrentMap<SpringBeanLocator, Object> cache = new ConcurrentHashMap<>();
-    private final ConcurrentMap<Class<?>, String> beanNameCache = new ConcurrentHashMap<>();
+    private static final boolean JSR250_PRESENT = ClassUtils.isPresent("javax.annotation.Resource",
+            AnnotFieldValueFactory.class.getClassLoader());
+
+    private final ICache<Class<?>, String> beanNameCache = Caches.create(Caches.BEAN_NAMES);
+    private final ICache<Field, SpringBeanLocator> locatorCache = Caches.create(Caches.LOCATORS);
 
     private ISpringContextLocator springContextLocator;
 
@@ -45,34 +58,94 @@ public class AnnotFieldValueFactory implements IFieldValueFactory {
 
     @Override
     public Object getFieldValue(final Field field) {
-        if (supportsField(field)) {
+        SpringBeanLocator locator = getLocator(field);
 
-            Named named = field.getAnnotation(Named.class);
-            String name = named != null ? named.value() : "";
+        // optional dependency without a bean, spring leaves the field null as well
+        if (!locator.isBeanAvailable() && !isRequired(field)) {
+            return null;
+        }
 
-            Class<?> generic = ResolvableType.forField(field).resolveGeneric(0);
-            String beanName = getBeanName(field, name, generic);
+        // prototypes and beans without a name get a proxy of their own
+        if (!locator.isSingletonBean() && !locator.isScopedBean()) {
+            return LazyInitProxyFactory.createProxy(field.getType(), locator);
+        }
 
-            SpringBeanLocator locator = new SpringBeanLocator(beanName, field.getType(), field, springContextLocator);
+        // singleton and scoped beans share the proxy, proxies of scoped beans resolve the target
+        // valid in the current scope on every invocation
+        return LazyInitProxyFactory.getSharedProxy(field.getType(), locator);
+    }
 
-            // only check the cache if the bean is a singleton
-            Object cachedValue = cache.get(locator);
-            if (cachedValue != null) {
-                return cachedValue;
+    /**
+     * Returns the proxy shared by all fields injecting the same singleton or scoped bean, the value
+     * of the field as long as the caches are not cleared
+     *
+     * @param field field
+     * @return shared proxy, or {@code null} if the field gets a proxy of its own
+     */
+    Object getSharedFieldValue(final Field field) {
+        SpringBeanLocator locator = getLocator(field);
+        if (!locator.isBeanAvailable() || !locator.isSingletonBean() && !locator.isScopedBean()) {
+            return null;
+        }
+        return LazyInitProxyFactory.getSharedProxy(field.getType(), locator);
+    }
+
+    /**
+     * Returns the locator of the bean to inject into the field. The locator is created once per
+     * field and shared with other fields of the same signature.
+     *
+     * @param field
+     * @return bean locator
+     */
+    private SpringBeanLocator getLocator(final Field field) {
+        SpringBeanLocator locator = locatorCache.get(field);
+        if (locator == null) {
+            String name = getQualifier(field);
+            if (StringUtils.isEmpty(name) && JSR250_PRESENT && Jsr250.isResource(field) &&
+                    getSpringContext().containsBean(field.getName())) {
+                // resource without a name, the field name takes precedence over the type
+                name = field.getName();
             }
 
-            Object target = LazyInitProxyFactory.createProxy(field.getType(), locator);
+            Class<?> generic = ResolvableType.forField(field).resolveGeneric(0);
+            String beanName = getBeanName(field, name, generic);
 
-            // only put the proxy into the cache if the bean is a singleton
-            if (locator.isSingletonBean()) {
-                Object tmpTarget = cache.putIfAbsent(locator, target);
-                if (tmpTarget != null) {
-                    target = tmpTarget;
-                }
+            locator = new SpringBeanLocator(beanName, field.getType(), field, springContextLocator).intern();
+
+            SpringBeanLocator tmpLocator = locatorCache.putIfAbsent(field, locator);
+            if (tmpLocator != null) {
+                locator = tmpLocator;
             }
-            return target;
         }
-        return null;
+        return locator;
+    }
+
+    /**
+     * @param field
+     * @return bean name given by the annotations of the field, or empty string if none
+     */
+    private static String getQualifier(final Field field) {
+        Named named = field.getAnnotation(Named.class);
+        if (named != null) {
+            return named.value();
+        }
+        Qualifier qualifier = field.getAnnotation(Qualifier.class);
+        if (qualifier != null) {
+            return qualifier.value();
+        }
+        if (JSR250_PRESENT) {
+            return Jsr250.getResourceName(field);
+        }
+        return "";
+    }
+
+    /**
+     * @param field
+     * @return false if the field is annotated with {@code @Autowired(required = false)}
+     */
+    private static boolean isRequired(final Field field) {
+        Autowired autowired = field.getAnnotation(Autowired.class);
+        return autowired == null || autowired.required();
     }
 
     /**
@@ -85,8 +158,9 @@ public class AnnotFieldValueFactory implements IFieldValueFactory {
 
             name = beanNameCache.get(fieldType);
             if (name == null) {
+                // not deduplicated, looking up the bean names may initialize factory beans under the
+                // lock of the bean factory
                 name = getBeanNameOfClass(getSpringContext(), fieldType, generic);
-
                 if (name != null) {
                     String tmpName = beanNameCache.putIfAbsent(fieldType, name);
                     if (tmpName != null) {
@@ -172,11 +246,47 @@ public class AnnotFieldValueFactory implements IFieldValueFactory {
         }
     }
 
+    /**
+     * Performs the action for every cached locator
+     *
+     * @param action action
+     */
+    void forEachLocator(final Consumer<SpringBeanLocator> action) {
+        locatorCache.forEach((field, locator) -> action.accept(locator));
+    }
+
+    /**
+     * Discards cached bean names, locators and proxies
+     */
+    public void clearCache() {
+        beanNameCache.clear();
+        locatorCache.clear();
+        SpringBeanLocator.clearInterned();
+        LazyInitProxyFactory.clearCaches();
+    }
+
+    @Override
     public boolean supportsField(final Field field) {
-        return field.isAnnotationPresent(Inject.class);
+        return field.isAnnotationPresent(Inject.class) || field.isAnnotationPresent(Autowired.class) ||
+                (JSR250_PRESENT && Jsr250.isResource(field));
     }
 
     private ApplicationContext getSpringContext() {
         return springContextLocator.getSpringContext();
     }
+
+    /**
+     * Keeps references to {@link Resource} out of the factory, so that it can be loaded without
+     * the annotation on the classpath.
+     */
+    private static class Jsr250 {
+        static boolean isResource(final Field field) {
+            return field.isAnnotationPresent(Resource.class);
+        }
+
+        static String getResourceName(final Field field) {
+            Resource resource = field.getAnnotation(Resource.class);
+            return resource != null ? resource.name() : "";
+        }
+    }
 }
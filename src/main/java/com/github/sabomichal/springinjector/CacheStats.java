@@ -0,0 +1,94 @@
+package com.github.sabomichal.springinjector;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hit, miss and eviction counts of a cache. Hits are counted on the hot path of every lookup, so
+ * their recording can be turned off, see {@link Caches#RECORD_HITS_PROPERTY}; misses and evictions
+ * are always counted.
+ *
+ * @author Michal Sabo
+ */
+public final class CacheStats {
+    private final boolean recordingHits;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Constructor of statistics recording hits
+     */
+    public CacheStats() {
+        this(true);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param recordingHits whether hits are counted
+     */
+    public CacheStats(final boolean recordingHits) {
+        this.recordingHits = recordingHits;
+    }
+
+    /**
+     * Records a lookup that found a value, unless hits are not counted
+     */
+    public void recordHit() {
+        if (recordingHits) {
+            hits.increment();
+        }
+    }
+
+    /**
+     * Records a lookup that found no value
+     */
+    public void recordMiss() {
+        misses.increment();
+    }
+
+    /**
+     * Records a value removed to make room for another one
+     */
+    public void recordEviction() {
+        evictions.increment();
+    }
+
+    /**
+     * @return whether hits are counted, otherwise the hit count is 0
+     */
+    public boolean isRecordingHits() {
+        return recordingHits;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return ratio of lookups that found a value, {@code 1.0} if there were no lookups,
+     * {@link Double#NaN} if hits are not counted
+     */
+    public double getHitRate() {
+        if (!recordingHits) {
+            return Double.NaN;
+        }
+        long hitCount = getHitCount();
+        long lookups = hitCount + getMissCount();
+        return lookups == 0 ? 1.0 : (double) hitCount / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats[hits=" + getHitCount() + ", misses=" + getMissCount() + ", evictions="
+                + getEvictionCount() + "]";
+    }
+}
@@ -0,0 +1,146 @@
+package com.github.sabomichal.springinjector;
+
+import org.springframework.util.Assert;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Creates the caches of the injector and collects their statistics.
+ * <p>
+ * By default the caches are unbounded. A maximum size can be set by the system property
+ * {@value #MAXIMUM_SIZE_PROPERTY}, or per cache by the property suffixed by the cache name, e.g.
+ * {@code spring-injector.cache.maximum-size.metadata}; bounded caches evict by the CLOCK policy, see
+ * {@link ClockCache}. A custom {@link ICacheFactory} can be set instead by
+ * {@link #setFactory(ICacheFactory)}. Caches are created when their owner is, the static caches of
+ * shared proxies, CGLib proxy factories and canonical locators again whenever the injector clears
+ * its caches, i.e. on every refresh and close of the application context. Both must therefore be
+ * configured before the application context is created or refreshed.
+ * <p>
+ * Misses and evictions are counted by the statistics of each cache, hits only if the system
+ * property {@value #RECORD_HITS_PROPERTY} is {@code true} when the cache is created, so that lookups
+ * do not write to shared memory by default.
+ *
+ * @author Michal Sabo
+ */
+public final class Caches {
+    public static final String MAXIMUM_SIZE_PROPERTY = "spring-injector.cache.maximum-size";
+    public static final String RECORD_HITS_PROPERTY = "spring-injector.cache.record-hits";
+
+    /**
+     * Injection metadata of classes, one cache per class loader
+     */
+    public static final String METADATA = "metadata";
+    /**
+     * CGLib proxy factories of classes, one cache per class loader
+     */
+    public static final String CGLIB_FACTORIES = "cglib-factories";
+    /**
+     * Proxies shared by the fields injecting the same bean
+     */
+    public static final String SHARED_PROXIES = "shared-proxies";
+    /**
+     * Names of the beans injected by type
+     */
+    public static final String BEAN_NAMES = "bean-names";
+    /**
+     * Bean locators of fields
+     */
+    public static final String LOCATORS = "locators";
+    /**
+     * Resolved values of fields
+     */
+    public static final String VALUES = "values";
+    /**
+     * Canonical instances of bean locators, shared by the fields injecting the same bean
+     */
+    public static final String CANONICAL_LOCATORS = "canonical-locators";
+
+    private static final ICacheFactory DEFAULT_FACTORY = new ICacheFactory() {
+        @Override
+        public <K, V> ICache<K, V> createCache(final String name, final CacheStats stats) {
+            int maximumSize = Integer.getInteger(MAXIMUM_SIZE_PROPERTY + "." + name,
+                    Integer.getInteger(MAXIMUM_SIZE_PROPERTY, 0));
+            return maximumSize > 0 ? new ClockCache<>(maximumSize, stats) : new ConcurrentMapCache<>(stats);
+        }
+    };
+
+    private static final ConcurrentMap<String, CacheStats> STATS = new ConcurrentHashMap<>();
+
+    private static volatile ICacheFactory factory = DEFAULT_FACTORY;
+
+    private Caches() {
+    }
+
+    /**
+     * Sets the factory of caches created from now on
+     *
+     * @param factory cache factory, or {@code null} to restore the default one
+     */
+    public static void setFactory(final ICacheFactory factory) {
+        Caches.factory = factory != null ? factory : DEFAULT_FACTORY;
+    }
+
+    /**
+     * @return factory of the caches created from now on
+     */
+    public static ICacheFactory getFactory() {
+        return factory;
+    }
+
+    /**
+     * Returns statistics of the caches by their names. Caches of the same name, e.g. one per class
+     * loader, share their statistics.
+     *
+     * @return cache statistics by cache name
+     */
+    public static Map<String, CacheStats> getStats() {
+        return Collections.unmodifiableMap(new TreeMap<>(STATS));
+    }
+
+    /**
+     * Creates statistics of the cache, replacing the statistics of a cache of the same name created
+     * before, e.g. by an injector of a previous application context
+     *
+     * @param name cache name
+     * @return new statistics
+     */
+    static CacheStats createStats(final String name) {
+        CacheStats stats = newStats();
+        STATS.put(name, stats);
+        return stats;
+    }
+
+    /**
+     * @return new statistics counting hits if enabled by {@value #RECORD_HITS_PROPERTY}
+     */
+    static CacheStats newStats() {
+        return new CacheStats(Boolean.getBoolean(RECORD_HITS_PROPERTY));
+    }
+
+    /**
+     * Creates a cache with new statistics
+     *
+     * @param name cache name
+     * @return new cache
+     */
+    static <K, V> ICache<K, V> create(final String name) {
+        return create(name, createStats(name));
+    }
+
+    /**
+     * Creates a cache recording to the statistics
+     *
+     * @param name  cache name
+     * @param stats statistics
+     * @return new cache
+     */
+    static <K, V> ICache<K, V> create(final String name, final CacheStats stats) {
+        ICache<K, V> cache = factory.createCache(name, stats);
+        Assert.state(cache != null, "Cache factory returned null for cache [" + name + "]");
+        return cache;
+    }
+}
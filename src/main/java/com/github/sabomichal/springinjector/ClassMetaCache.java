@@ -1,20 +1,45 @@
 package com.github.sabomichal.springinjector;
 
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.WeakHashMap;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 /**
- * This class wraps a WeakHashMap that holds one ConcurrentHashMap per ClassLoader. In the rare
+ * This class wraps a WeakHashMap that holds one {@link ICache} per ClassLoader. In the rare
  * event of a previously unmapped ClassLoader, the WeakHashMap is replaced by a new one. This avoids
  * any synchronization overhead, much like a {@link java.util.concurrent.CopyOnWriteArrayList}
+ * <p>
+ * Caches of a named instance are created by {@link Caches}, so they can be bounded, and share
+ * their statistics.
  *
  * @param <T>
  *            type of objects stored in cache
  */
 public class ClassMetaCache<T> {
-    private volatile Map<ClassLoader, ConcurrentHashMap<String, T>> cache = Collections.emptyMap();
+    private volatile Map<ClassLoader, ICache<String, T>> cache = Collections.emptyMap();
+
+    private final String name;
+    private final CacheStats stats;
+
+    /**
+     * Constructor of an unbounded cache
+     */
+    public ClassMetaCache() {
+        this.name = null;
+        this.stats = Caches.newStats();
+    }
+
+    /**
+     * Constructor
+     *
+     * @param name name the caches are created by {@link Caches} with
+     */
+    public ClassMetaCache(final String name) {
+        this.name = name;
+        this.stats = Caches.createStats(name);
+    }
 
     /**
      * Puts value into cache
@@ -24,7 +49,7 @@ public class ClassMetaCache<T> {
      * @return value previously stored in cache for this key, or {@code null} if none
      */
     public T put(final Class<?> key, final T value) {
-        ConcurrentHashMap<String, T> container = getClassLoaderCache(key.getClassLoader(), true);
+        ICache<String, T> container = getClassLoaderCache(key.getClassLoader(), true);
         return container.put(key(key), value);
     }
 
@@ -35,22 +60,61 @@ public class ClassMetaCache<T> {
      * @return value stored in cache or {@code null} if none
      */
     public T get(final Class<?> key) {
-        ConcurrentHashMap<String, T> container = getClassLoaderCache(key.getClassLoader(), false);
+        ICache<String, T> container = getClassLoaderCache(key.getClassLoader(), false);
         if (container == null) {
+            stats.recordMiss();
             return null;
         } else {
             return container.get(key(key));
         }
     }
 
+    /**
+     * Performs the action for every value in cache
+     *
+     * @param action action
+     */
+    public void forEachValue(final Consumer<? super T> action) {
+        for (ICache<String, T> container : cache.values()) {
+            container.forEach((key, value) -> action.accept(value));
+        }
+    }
+
+    /**
+     * Removes all values from cache
+     */
+    public void clear() {
+        synchronized (this) {
+            cache = Collections.emptyMap();
+        }
+    }
+
+    /**
+     * @return number of values cached per class loader
+     */
+    public Map<ClassLoader, Integer> getSizes() {
+        Map<ClassLoader, Integer> sizes = new LinkedHashMap<>();
+        for (Map.Entry<ClassLoader, ICache<String, T>> entry : cache.entrySet()) {
+            sizes.put(entry.getKey(), entry.getValue().size());
+        }
+        return sizes;
+    }
+
+    /**
+     * @return statistics shared by the caches of all class loaders
+     */
+    public CacheStats getStats() {
+        return stats;
+    }
+
     /**
      * @param classLoader
      * @param create
-     * @return a {@link ConcurrentHashMap} mapping class names to injectable fields, never
-     * <code>null</code>
+     * @return a {@link ICache} mapping class names to injectable fields, or <code>null</code> if
+     * none and not to be created
      */
-    private ConcurrentHashMap<String, T> getClassLoaderCache(final ClassLoader classLoader, final boolean create) {
-        ConcurrentHashMap<String, T> container = cache.get(classLoader);
+    private ICache<String, T> getClassLoaderCache(final ClassLoader classLoader, final boolean create) {
+        ICache<String, T> container = cache.get(classLoader);
         if (container == null) {
             if (!create) {
                 return null;
@@ -61,12 +125,12 @@ public class ClassMetaCache<T> {
                 // check again inside lock
                 container = cache.get(classLoader);
                 if (container == null) {
-                    container = new ConcurrentHashMap<>();
+                    container = name != null ? Caches.create(name, stats) : new ConcurrentMapCache<>(stats);
 
 					/*
                      * don't write to current cache, copy instead
 					 */
-                    Map<ClassLoader, ConcurrentHashMap<String, T>> newCache = new WeakHashMap<>(cache);
+                    Map<ClassLoader, ICache<String, T>> newCache = new WeakHashMap<>(cache);
                     newCache.put(classLoader, container);
                     cache = Collections.unmodifiableMap(newCache);
                 }
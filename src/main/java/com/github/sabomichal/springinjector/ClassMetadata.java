@@ -0,0 +1,188 @@
+package com.github.sabomichal.springinjector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.Function;
+
+/**
+ * Injection metadata of a class, cached by {@link SpringInjector} per class. Metadata holds only
+ * the injectable fields declared by the class itself and refers to the metadata of the superclass
+ * for the inherited ones, so the metadata of a superclass is discovered and stored once and shared
+ * by all its subclasses.
+ * <p>
+ * Injections of the class are counted, so that {@link SpringInjector} can promote frequently
+ * injected classes to metadata with fields bound to constant values.
+ *
+ * @author Michal Sabo
+ */
+final class ClassMetadata {
+    private static final AtomicIntegerFieldUpdater<ClassMetadata> PROMOTION =
+            AtomicIntegerFieldUpdater.newUpdater(ClassMetadata.class, "promotion");
+    /**
+     * At most one in this many injections is counted
+     */
+    private static final int MAX_SAMPLING = 64;
+
+    private final Class<?> type;
+    private final InjectionEngine engine;
+    private final FieldBinding[] bindings;
+    private final ClassMetadata parent;
+    /**
+     * Generation of the metadata of the injector the metadata were discovered in
+     */
+    private final int generation;
+    /**
+     * True if the bindings are bound to constant values, such metadata are not promoted
+     */
+    private final boolean bound;
+    /**
+     * Number of injections, sampled and counted racily, so it is approximate
+     */
+    private int injections;
+    private volatile int promotion;
+
+    /**
+     * Constructor
+     *
+     * @param type     the class
+     * @param engine   engine used to inject instances of the class
+     * @param bindings injectable fields declared by the class bound to their factories
+     * @param parent     metadata of the superclass, or {@code null} if none
+     * @param generation generation of the metadata of the injector, read before the discovery started
+     */
+    ClassMetadata(final Class<?> type, final InjectionEngine engine, final FieldBinding[] bindings,
+                  final ClassMetadata parent, final int generation) {
+        this(type, engine, bindings, parent, generation, false);
+    }
+
+    private ClassMetadata(final Class<?> type, final InjectionEngine engine, final FieldBinding[] bindings,
+                          final ClassMetadata parent, final int generation, final boolean bound) {
+        this.type = type;
+        this.generation = generation;
+        this.bound = bound;
+        this.engine = engine;
+        this.bindings = bindings;
+        // skip superclasses not declaring any injectable field
+        this.parent = parent != null && parent.bindings.length == 0 ? parent.parent : parent;
+    }
+
+    Class<?> getType() {
+        return type;
+    }
+
+    InjectionEngine getEngine() {
+        return engine;
+    }
+
+    /**
+     * @return generation of the metadata of the injector the metadata were discovered in, copies
+     * keep the generation of the original
+     */
+    int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * @return true if neither the class nor its superclasses declare an injectable field
+     */
+    boolean isEmpty() {
+        return bindings.length == 0 && parent == null;
+    }
+
+    /**
+     * @return true if the bindings are bound to constant values
+     */
+    boolean isBound() {
+        return bound;
+    }
+
+    /**
+     * Counts injections of instances of the class. Injections are sampled, the shared counter is
+     * only written for about one in every {@code threshold / 64} injections, at most one in
+     * {@value #MAX_SAMPLING}, weighted accordingly, so that hot classes do not write it on every
+     * injection. Small thresholds are counted exactly.
+     *
+     * @param count     number of injected instances
+     * @param threshold number of injections the class is promoted after, 0 if never
+     * @return true once the threshold is reached, the caller is expected to promote the class
+     */
+    boolean recordInjections(final int count, final int threshold) {
+        if (bound || threshold <= 0) {
+            return false;
+        }
+        int sampling = Math.min(MAX_SAMPLING, Math.max(1, Integer.highestOneBit(threshold >>> 6)));
+        int weight = count;
+        if (count < sampling) {
+            // counted with the probability count / sampling
+            if (ThreadLocalRandom.current().nextInt(sampling) >= count) {
+                return false;
+            }
+            weight = sampling;
+        }
+        if ((injections += weight) < threshold) {
+            return false;
+        }
+        return promotion == 0 && PROMOTION.compareAndSet(this, 0, 1);
+    }
+
+    /**
+     * Resets the count of injections after the promotion could not be scheduled, so that the class
+     * is promoted once the threshold is reached again
+     */
+    void cancelPromotion() {
+        injections = 0;
+        promotion = 0;
+    }
+
+    /**
+     * Returns a copy of the metadata with the bindings replaced by the function, the metadata of
+     * superclasses are copied once and shared
+     *
+     * @param binder function returning the binding to replace the given one with
+     * @param copies copies of metadata made so far
+     * @return copy of the metadata
+     */
+    ClassMetadata copy(final Function<FieldBinding, FieldBinding> binder,
+                       final Map<ClassMetadata, ClassMetadata> copies) {
+        ClassMetadata copy = copies.get(this);
+        if (copy == null) {
+            FieldBinding[] copiedBindings = new FieldBinding[bindings.length];
+            for (int i = 0; i < bindings.length; i++) {
+                copiedBindings[i] = binder.apply(bindings[i]);
+            }
+            copy = new ClassMetadata(type, engine, copiedBindings, parent != null ? parent.copy(binder, copies) : null, generation, true);
+            copies.put(this, copy);
+        }
+        return copy;
+    }
+
+    /**
+     * Injects fields declared by the class and its superclasses
+     *
+     * @param object object to inject
+     * @throws IllegalAccessException if a field can not be set
+     */
+    void inject(final Object object) throws IllegalAccessException {
+        for (ClassMetadata metadata = this; metadata != null; metadata = metadata.parent) {
+            for (final FieldBinding binding : metadata.bindings) {
+                binding.inject(object);
+            }
+        }
+    }
+
+    /**
+     * @return injectable fields declared by the class and its superclasses
+     */
+    List<FieldBinding> getBindings() {
+        List<FieldBinding> all = new ArrayList<>();
+        for (ClassMetadata metadata = this; metadata != null; metadata = metadata.parent) {
+            for (final FieldBinding binding : metadata.bindings) {
+                all.add(binding);
+            }
+        }
+        return all;
+    }
+}
@@ -0,0 +1,153 @@
+package com.github.sabomichal.springinjector;
+
+import org.springframework.util.Assert;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Size bounded cache evicting by the CLOCK (second chance) policy. Lookups read a
+ * {@link ConcurrentHashMap} and mark the entry as referenced, the mark is only written if not set
+ * already, so lookups of hot entries do not write to shared memory unless hits are counted, see
+ * {@link CacheStats}. Insertions are serialized; when
+ * the cache is full the clock hand sweeps the entries, clearing the marks, and evicts the first
+ * entry not referenced since the previous sweep.
+ *
+ * @param <K> type of keys
+ * @param <V> type of values
+ * @author Michal Sabo
+ */
+public class ClockCache<K, V> implements ICache<K, V> {
+    private final ConcurrentMap<K, Node<K, V>> map = new ConcurrentHashMap<>();
+    private final CacheStats stats;
+
+    // guarded by this
+    private final Node<K, V>[] ring;
+    private int size;
+    private int hand;
+
+    /**
+     * Constructor
+     *
+     * @param maximumSize maximum number of cached values
+     * @param stats       statistics to record to
+     */
+    @SuppressWarnings("unchecked")
+    public ClockCache(final int maximumSize, final CacheStats stats) {
+        Assert.isTrue(maximumSize > 0, "Argument maximumSize must be positive.");
+        this.ring = (Node<K, V>[]) new Node<?, ?>[maximumSize];
+        this.stats = stats;
+    }
+
+    @Override
+    public V get(final K key) {
+        Node<K, V> node = map.get(key);
+        if (node == null) {
+            stats.recordMiss();
+            return null;
+        }
+        if (!node.referenced) {
+            node.referenced = true;
+        }
+        stats.recordHit();
+        return node.value;
+    }
+
+    @Override
+    public synchronized V put(final K key, final V value) {
+        Node<K, V> node = new Node<>(key, value);
+        Node<K, V> previous = map.get(key);
+        if (previous != null) {
+            // take over the slot of the replaced entry
+            node.slot = previous.slot;
+            ring[node.slot] = node;
+            map.put(key, node);
+            return previous.value;
+        }
+        admit(node);
+        return null;
+    }
+
+    @Override
+    public V putIfAbsent(final K key, final V value) {
+        Node<K, V> previous = map.get(key);
+        if (previous != null) {
+            return previous.value;
+        }
+        synchronized (this) {
+            previous = map.get(key);
+            if (previous != null) {
+                return previous.value;
+            }
+            admit(new Node<>(key, value));
+            return null;
+        }
+    }
+
+    /**
+     * Puts the new entry into a free slot, or into the slot of an evicted entry if the cache is full
+     *
+     * @param node new entry
+     */
+    private void admit(final Node<K, V> node) {
+        if (size < ring.length) {
+            node.slot = size++;
+        } else {
+            while (true) {
+                Node<K, V> candidate = ring[hand];
+                if (candidate.referenced) {
+                    // second chance
+                    candidate.referenced = false;
+                    hand = (hand + 1) % ring.length;
+                } else {
+                    map.remove(candidate.key);
+                    stats.recordEviction();
+                    node.slot = hand;
+                    hand = (hand + 1) % ring.length;
+                    break;
+                }
+            }
+        }
+        ring[node.slot] = node;
+        map.put(node.key, node);
+    }
+
+    @Override
+    public void forEach(final BiConsumer<? super K, ? super V> action) {
+        map.forEach((key, node) -> action.accept(key, node.value));
+    }
+
+    @Override
+    public synchronized void clear() {
+        map.clear();
+        Arrays.fill(ring, null);
+        size = 0;
+        hand = 0;
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public CacheStats getStats() {
+        return stats;
+    }
+
+    private static final class Node<K, V> {
+        final K key;
+        final V value;
+        // racy by design, a lost mark only costs the entry its second chance
+        boolean referenced;
+        // guarded by the cache
+        int slot;
+
+        Node(final K key, final V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.github.sabomichal.springinjector;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Chain of {@link IFieldValueFactory} instances. The first factory in the chain that supports a
+ * field is the one that provides its value.
+ * <p>
+ * {@link SpringInjector} uses {@link #getFactory(Field)} to bind every injectable field to its
+ * factory once, when the class is discovered, so that injections do not walk the chain again.
+ *
+ * @author Michal Sabo
+ */
+public class CompositeFieldValueFactory implements IFieldValueFactory {
+
+    private final List<IFieldValueFactory> factories = new CopyOnWriteArrayList<>();
+
+    /**
+     * Constructor
+     *
+     * @param factories factories in the order they are asked for support of a field
+     */
+    public CompositeFieldValueFactory(final IFieldValueFactory... factories) {
+        this.factories.addAll(Arrays.asList(factories));
+    }
+
+    /**
+     * Adds a factory in front of the chain, so that it takes precedence over the factories already
+     * present.
+     *
+     * @param factory factory to add
+     */
+    public void addFirst(final IFieldValueFactory factory) {
+        factories.add(0, factory);
+    }
+
+    /**
+     * Returns the first factory in the chain supporting the field.
+     *
+     * @param field field
+     * @return the factory that provides value for the field, or {@code null} if none
+     */
+    public IFieldValueFactory getFactory(final Field field) {
+        for (IFieldValueFactory factory : factories) {
+            if (factory.supportsField(field)) {
+                return factory;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Object getFieldValue(final Field field) {
+        IFieldValueFactory factory = getFactory(field);
+        return factory != null ? factory.getFieldValue(field) : null;
+    }
+
+    @Override
+    public boolean supportsField(final Field field) {
+        return getFactory(field) != null;
+    }
+}
@@ -0,0 +1,67 @@
+package com.github.sabomichal.springinjector;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Unbounded cache backed by a {@link ConcurrentHashMap}
+ *
+ * @param <K> type of keys
+ * @param <V> type of values
+ * @author Michal Sabo
+ */
+public class ConcurrentMapCache<K, V> implements ICache<K, V> {
+    private final ConcurrentMap<K, V> map = new ConcurrentHashMap<>();
+    private final CacheStats stats;
+
+    /**
+     * Constructor
+     *
+     * @param stats statistics to record to
+     */
+    public ConcurrentMapCache(final CacheStats stats) {
+        this.stats = stats;
+    }
+
+    @Override
+    public V get(final K key) {
+        V value = map.get(key);
+        if (value != null) {
+            stats.recordHit();
+        } else {
+            stats.recordMiss();
+        }
+        return value;
+    }
+
+    @Override
+    public V put(final K key, final V value) {
+        return map.put(key, value);
+    }
+
+    @Override
+    public V putIfAbsent(final K key, final V value) {
+        return map.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void forEach(final BiConsumer<? super K, ? super V> action) {
+        map.forEach(action);
+    }
+
+    @Override
+    public void clear() {
+        map.clear();
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public CacheStats getStats() {
+        return stats;
+    }
+}
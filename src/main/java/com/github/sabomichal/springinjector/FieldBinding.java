@@ -0,0 +1,68 @@
+package com.github.sabomichal.springinjector;
+
+import java.lang.reflect.Field;
+
+/**
+ * Injectable field bound to the {@link IFieldValueFactory} that provides its value. Bindings are
+ * created once per class by {@link SpringInjector} and kept in its class metadata cache.
+ *
+ * @author Michal Sabo
+ */
+final class FieldBinding {
+    private final Field field;
+    private final IFieldValueFactory factory;
+    private final boolean primitive;
+    private final Object constant;
+
+    /**
+     * Constructor
+     *
+     * @param field   injectable field
+     * @param factory factory providing the value of the field
+     */
+    FieldBinding(final Field field, final IFieldValueFactory factory) {
+        this(field, factory, null);
+    }
+
+    /**
+     * Constructor of a binding whose value does not change, e.g. a shared proxy
+     *
+     * @param field    injectable field
+     * @param factory  factory providing the value of the field
+     * @param constant value of the field, or {@code null} to ask the factory on every injection
+     */
+    FieldBinding(final Field field, final IFieldValueFactory factory, final Object constant) {
+        this.field = field;
+        this.factory = factory;
+        this.primitive = field.getType().isPrimitive();
+        this.constant = constant;
+        if (!field.isAccessible()) {
+            field.setAccessible(true);
+        }
+    }
+
+    /**
+     * Sets the field of the object to the value provided by the bound factory, unless the field
+     * already holds a value. Primitive fields are always set.
+     *
+     * @param object object to inject
+     * @throws IllegalAccessException if the field can not be set
+     */
+    void inject(final Object object) throws IllegalAccessException {
+        if (primitive || field.get(object) == null) {
+            Object value = constant != null ? constant : factory.getFieldValue(field);
+
+            if (value != null) {
+                field.set(object, value);
+            }
+        }
+    }
+
+    Field getField() {
+        return field;
+    }
+
+    IFieldValueFactory getFactory() {
+        return factory;
+    }
+}
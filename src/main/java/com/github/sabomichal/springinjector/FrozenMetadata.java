@@ -0,0 +1,86 @@
+package com.github.sabomichal.springinjector;
+
+import java.util.Collection;
+
+/**
+ * Immutable table of class metadata created by {@link SpringInjector#freeze()}. Classes are looked
+ * up by identity in an open addressing table; the table is sized so that, if possible, every class
+ * lands in a slot of its own and a lookup reads one slot only.
+ *
+ * @author Michal Sabo
+ */
+final class FrozenMetadata {
+    private static final int MAX_SPREAD = 8;
+
+    private final Class<?>[] types;
+    private final ClassMetadata[] metadata;
+    private final int mask;
+
+    /**
+     * Constructor
+     *
+     * @param values metadata of distinct classes
+     */
+    FrozenMetadata(final Collection<ClassMetadata> values) {
+        int capacity = tableSize(values.size());
+        // grow the table until there are no collisions, within a limit
+        for (int limit = capacity * MAX_SPREAD; capacity < limit && !isCollisionFree(values, capacity); ) {
+            capacity <<= 1;
+        }
+        types = new Class<?>[capacity];
+        metadata = new ClassMetadata[capacity];
+        mask = capacity - 1;
+        for (ClassMetadata value : values) {
+            int i = index(value.getType(), mask);
+            while (types[i] != null) {
+                i = (i + 1) & mask;
+            }
+            types[i] = value.getType();
+            metadata[i] = value;
+        }
+    }
+
+    /**
+     * @param clazz class
+     * @return metadata of the class, or {@code null} if the class is not in the table
+     */
+    ClassMetadata get(final Class<?> clazz) {
+        int i = index(clazz, mask);
+        Class<?> type;
+        while ((type = types[i]) != null) {
+            if (type == clazz) {
+                return metadata[i];
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    private static boolean isCollisionFree(final Collection<ClassMetadata> values, final int capacity) {
+        boolean[] used = new boolean[capacity];
+        for (ClassMetadata value : values) {
+            int i = index(value.getType(), capacity - 1);
+            if (used[i]) {
+                return false;
+            }
+            used[i] = true;
+        }
+        return true;
+    }
+
+    /**
+     * @return power of two at least twice the size, so that the table is never full
+     */
+    private static int tableSize(final int size) {
+        int capacity = 2;
+        while (capacity < size * 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static int index(final Class<?> clazz, final int mask) {
+        int h = System.identityHashCode(clazz);
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
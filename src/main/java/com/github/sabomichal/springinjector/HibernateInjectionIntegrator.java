@@ -0,0 +1,118 @@
+package com.github.sabomichal.springinjector;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <a href="https://hibernate.org/orm/">Hibernate</a> 5 integrator registering a post-load event
+ * listener, which injects the loaded entities, so that entities do not have to inject themselves in
+ * a {@code @PostLoad} callback. The listener is registered in front of the other post-load
+ * listeners, so the entities are injected before their JPA {@code @PostLoad} callbacks are called.
+ * The integrator has to be applied when the session factory is built, e.g.
+ * <pre>
+ * new BootstrapServiceRegistryBuilder().applyIntegrator(new HibernateInjectionIntegrator())
+ * </pre>
+ * or by the {@code hibernate.integrator_provider} property when bootstrapped by JPA.
+ * <p>
+ * Hibernate signals the load of every entity separately and does not signal the end of a query, so
+ * the entities can not be collected and injected at once without handing them to the application
+ * uninjected. Instead, each entity is injected immediately with the metadata of its class bound to
+ * the shared proxies and values once per listener: the rows of a large result set are injected
+ * without looking the proxies and values up again. The bound metadata are dropped whenever the
+ * caches of the injector are cleared, e.g. on context refresh, and refer to the injector weakly, so
+ * that a session factory outliving its application context does not keep the context. Entities
+ * loaded before the injector bean is created are not injected, unless the
+ * {@link SpringInjector#enableBootstrapMode() bootstrap mode} is on. The Hibernate dependency is
+ * optional, this class is only loaded when used.
+ *
+ * @author Michal Sabo
+ */
+public class HibernateInjectionIntegrator implements Integrator {
+
+    @Override
+    public void integrate(final Metadata metadata, final SessionFactoryImplementor sessionFactory,
+                          final SessionFactoryServiceRegistry serviceRegistry) {
+        serviceRegistry.getService(EventListenerRegistry.class)
+                .prependListeners(EventType.POST_LOAD, new InjectingPostLoadListener());
+    }
+
+    @Override
+    public void disintegrate(final SessionFactoryImplementor sessionFactory,
+                             final SessionFactoryServiceRegistry serviceRegistry) {
+    }
+
+    /**
+     * Injects loaded entities with the bound metadata of their classes
+     */
+    private static class InjectingPostLoadListener implements PostLoadEventListener {
+        private static final long serialVersionUID = 1L;
+
+        private transient volatile BoundMetadata boundMetadata;
+
+        @Override
+        public void onPostLoad(final PostLoadEvent event) {
+            SpringInjector injector = SpringInjector.get();
+            if (injector == null) {
+                // the injector bean has not been created yet and the bootstrap mode is off
+                return;
+            }
+            Object entity = event.getEntity();
+            if (injector.isPlaceholder()) {
+                // queued in bootstrap mode, or forwarded to the injector
+                injector.inject(entity);
+                return;
+            }
+            int generation = injector.getMetadataGeneration();
+            BoundMetadata bound = boundMetadata;
+            if (bound == null || !bound.isValid(injector, generation)) {
+                bound = new BoundMetadata(injector, generation);
+                boundMetadata = bound;
+            }
+            bound.inject(injector, entity);
+        }
+    }
+
+    /**
+     * Metadata bound for one generation of the metadata of an injector
+     */
+    private static final class BoundMetadata {
+        private final WeakReference<SpringInjector> injector;
+        private final int generation;
+        private final ConcurrentMap<Class<?>, ClassMetadata> metadata = new ConcurrentHashMap<>();
+
+        BoundMetadata(final SpringInjector injector, final int generation) {
+            this.injector = new WeakReference<>(injector);
+            this.generation = generation;
+        }
+
+        boolean isValid(final SpringInjector injector, final int generation) {
+            return this.injector.get() == injector && this.generation == generation;
+        }
+
+        void inject(final SpringInjector injector, final Object entity) {
+            Class<?> type = entity.getClass();
+            ClassMetadata bound = metadata.get(type);
+            if (bound == null) {
+                // not computed under the lock of the map, binding may create beans
+                bound = injector.getBoundMetadata(type);
+                if (bound.getGeneration() == generation) {
+                    ClassMetadata previous = metadata.putIfAbsent(type, bound);
+                    if (previous != null) {
+                        bound = previous;
+                    }
+                }
+            }
+            injector.injectBound(entity, bound);
+        }
+    }
+}
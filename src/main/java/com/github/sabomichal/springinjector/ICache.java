@@ -0,0 +1,63 @@
+package com.github.sabomichal.springinjector;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Cache used by the injector for class metadata, bean names, locators, proxies and values. Caches
+ * are created by the {@link ICacheFactory} set to {@link Caches}.
+ *
+ * @param <K> type of keys
+ * @param <V> type of values
+ * @author Michal Sabo
+ * @see Caches
+ */
+public interface ICache<K, V> {
+
+    /**
+     * Returns the value cached for the key
+     *
+     * @param key key
+     * @return cached value, or {@code null} if none
+     */
+    V get(K key);
+
+    /**
+     * Caches the value for the key, replacing the value cached before
+     *
+     * @param key   key
+     * @param value value
+     * @return value cached before, or {@code null} if none
+     */
+    V put(K key, V value);
+
+    /**
+     * Caches the value for the key unless a value is cached already
+     *
+     * @param key   key
+     * @param value value
+     * @return value cached before, or {@code null} if the value has been cached
+     */
+    V putIfAbsent(K key, V value);
+
+    /**
+     * Performs the action for every cached key and value
+     *
+     * @param action action
+     */
+    void forEach(BiConsumer<? super K, ? super V> action);
+
+    /**
+     * Removes all values
+     */
+    void clear();
+
+    /**
+     * @return number of cached values
+     */
+    int size();
+
+    /**
+     * @return statistics of the cache
+     */
+    CacheStats getStats();
+}
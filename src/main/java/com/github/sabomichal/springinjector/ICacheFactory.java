@@ -0,0 +1,22 @@
+package com.github.sabomichal.springinjector;
+
+/**
+ * Factory of the caches used by the injector.
+ *
+ * @author Michal Sabo
+ * @see Caches#setFactory(ICacheFactory)
+ */
+public interface ICacheFactory {
+
+    /**
+     * Creates a cache
+     *
+     * @param name  name of the cache, see the constants of {@link Caches}
+     * @param stats statistics the cache records to, possibly shared by several caches of the same
+     *              name
+     * @param <K>   type of keys
+     * @param <V>   type of values
+     * @return new cache
+     */
+    <K, V> ICache<K, V> createCache(String name, CacheStats stats);
+}
@@ -36,4 +36,16 @@ public interface IProxyTargetLocator extends Serializable {
      * @return retrieved object
      */
     Object locateProxyTarget();
+
+    /**
+     * Returns whether a lazy init proxy may keep the located target for subsequent method
+     * invocations. Locators of targets bound to a scope (e.g. request or session) return
+     * {@code false}, the proxy then locates the target valid in the current scope on every
+     * invocation.
+     *
+     * @return true if the target can be kept by the proxy, false otherwise
+     */
+    default boolean isTargetCacheable() {
+        return true;
+    }
 }
@@ -0,0 +1,25 @@
+package com.github.sabomichal.springinjector;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Selects the {@link InjectionEngine} used for instances of the annotated class, overriding the
+ * default engine of the {@link SpringInjector}.
+ *
+ * @author Michal Sabo
+ */
+@Documented
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface InjectWith {
+    /**
+     * @return engine used to inject instances of the annotated class
+     */
+    InjectionEngine value();
+}
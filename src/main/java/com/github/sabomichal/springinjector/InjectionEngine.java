@@ -0,0 +1,24 @@
+package com.github.sabomichal.springinjector;
+
+/**
+ * Engines {@link SpringInjector} can use to inject an object.
+ *
+ * @author Michal Sabo
+ * @see InjectWith
+ * @see SpringInjector#setDefaultEngine(InjectionEngine)
+ */
+public enum InjectionEngine {
+    /**
+     * Fields are set to serializable lazy init proxies created by the {@link IFieldValueFactory}
+     * the fields are bound to. Fields already holding a value are left untouched.
+     */
+    PROXY,
+
+    /**
+     * The object is handed to {@link org.springframework.beans.factory.config.AutowireCapableBeanFactory#autowireBean(Object)},
+     * which resolves the fields through the injection metadata Spring caches per class. Fields are
+     * set to the beans themselves, the full {@code @Autowired}, {@code @Qualifier} and {@code @Value}
+     * semantics apply, but the injected object is not safe to serialize.
+     */
+    AUTOWIRE
+}
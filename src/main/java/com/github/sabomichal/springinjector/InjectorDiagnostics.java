@@ -0,0 +1,122 @@
+package com.github.sabomichal.springinjector;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Snapshot of the caches, proxies and promotions of {@link SpringInjector}, taken by
+ * {@link SpringInjector#getDiagnostics()}. Counters are read one by one while the injector keeps
+ * working, so they are not consistent with each other.
+ *
+ * @author Michal Sabo
+ */
+public final class InjectorDiagnostics {
+    private final Map<String, CacheStats> cacheStats;
+    private final Map<String, Integer> metadataCacheSizes;
+    private final Map<String, Integer> proxyClassCounts;
+    private final List<String> locators;
+    private final List<String> sharedProxies;
+    private final LatencyStats resolutionStats;
+    private final long promotionCount;
+
+    InjectorDiagnostics(final AnnotFieldValueFactory annotFieldValueFactory,
+                        final Map<ClassLoader, Integer> metadataCacheSizes, final long promotionCount) {
+        this.cacheStats = Collections.unmodifiableMap(new TreeMap<>(Caches.getStats()));
+        this.metadataCacheSizes = byName(metadataCacheSizes);
+        this.proxyClassCounts = byName(LazyInitProxyFactory.getProxyClassCounts());
+
+        List<String> locators = new ArrayList<>();
+        annotFieldValueFactory.forEachLocator(locator -> locators.add(describe(locator)));
+        Collections.sort(locators);
+        this.locators = Collections.unmodifiableList(locators);
+
+        List<String> sharedProxies = new ArrayList<>();
+        LazyInitProxyFactory.forEachSharedProxy(locator -> sharedProxies.add(describe(locator)));
+        Collections.sort(sharedProxies);
+        this.sharedProxies = Collections.unmodifiableList(sharedProxies);
+
+        this.resolutionStats = LazyInitProxyFactory.getResolutionStats();
+        this.promotionCount = promotionCount;
+    }
+
+    /**
+     * @return statistics of the caches by the cache name
+     * @see Caches
+     */
+    public Map<String, CacheStats> getCacheStats() {
+        return cacheStats;
+    }
+
+    /**
+     * @return number of classes with cached injection metadata by the class loader of the classes
+     */
+    public Map<String, Integer> getMetadataCacheSizes() {
+        return metadataCacheSizes;
+    }
+
+    /**
+     * @return number of generated CGLib proxy classes by the class loader of the proxied classes
+     */
+    public Map<String, Integer> getProxyClassCounts() {
+        return proxyClassCounts;
+    }
+
+    /**
+     * @return cached bean locators, with the fields they were created for
+     */
+    public List<String> getLocators() {
+        return locators;
+    }
+
+    /**
+     * @return beans of the shared proxies
+     */
+    public List<String> getSharedProxies() {
+        return sharedProxies;
+    }
+
+    /**
+     * @return durations of locating the targets cached by proxies, since the JVM started
+     */
+    public LatencyStats getResolutionStats() {
+        return resolutionStats;
+    }
+
+    /**
+     * @return number of classes promoted so far
+     * @see SpringInjector#setPromotionThreshold(int)
+     */
+    public long getPromotionCount() {
+        return promotionCount;
+    }
+
+    private static Map<String, Integer> byName(final Map<ClassLoader, Integer> sizes) {
+        Map<String, Integer> named = new LinkedHashMap<>();
+        for (Map.Entry<ClassLoader, Integer> entry : sizes.entrySet()) {
+            named.merge(entry.getKey() != null ? entry.getKey().toString() : "bootstrap", entry.getValue(), Integer::sum);
+        }
+        return Collections.unmodifiableMap(named);
+    }
+
+    private static String describe(final IProxyTargetLocator locator) {
+        if (!(locator instanceof SpringBeanLocator)) {
+            return locator.toString();
+        }
+        SpringBeanLocator beanLocator = (SpringBeanLocator) locator;
+        StringBuilder description = new StringBuilder();
+        if (beanLocator.getBeanName() != null) {
+            description.append(beanLocator.getBeanName()).append(' ');
+        }
+        description.append('(').append(beanLocator.getBeanTypeName()).append(')');
+        Field field = beanLocator.getField();
+        if (field != null) {
+            description.append(" <- ").append(field.getDeclaringClass().getName()).append('.').append(field.getName());
+        }
+        return description.toString();
+    }
+}
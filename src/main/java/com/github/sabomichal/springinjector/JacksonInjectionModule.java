@@ -0,0 +1,188 @@
+package com.github.sabomichal.springinjector;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerBase;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
+import com.fasterxml.jackson.databind.deser.std.DelegatingDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.type.ArrayType;
+import com.fasterxml.jackson.databind.type.CollectionType;
+import com.fasterxml.jackson.databind.type.MapType;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <a href="https://github.com/FasterXML/jackson-databind">Jackson</a> module injecting deserialized
+ * objects, so that their classes do not have to call {@link SpringInjector#inject(Object)} from the
+ * constructor:
+ * <pre>
+ * ObjectMapper mapper = new ObjectMapper().registerModule(new JacksonInjectionModule());
+ * </pre>
+ * Objects of classes declaring injectable fields are injected once deserialized. Elements of
+ * arrays, collections and maps are collected and injected together by
+ * {@link SpringInjector#injectAll(java.util.Collection)} when the outermost container is read, so
+ * the metadata of each class are looked up once per payload rather than once per object. Until then
+ * the elements are not injected, custom deserializers should not call the injected fields of the
+ * objects they read.
+ * <p>
+ * Classes using the module should not call {@link SpringInjector#inject(Object)} themselves,
+ * otherwise the objects are injected twice. Whether a class is injected is decided when the first
+ * object of the class is deserialized, and kept for the lifetime of the deserializer cache of the
+ * object mapper.
+ * <p>
+ * In {@link SpringInjector#enableBootstrapMode() bootstrap mode} objects and batches read before the
+ * application context is refreshed are queued. Objects read while there is no injector at all, i.e.
+ * before the injector bean is created and with the bootstrap mode off, are left uninjected. The
+ * Jackson dependency is optional, this class is only loaded when used.
+ *
+ * @author Michal Sabo
+ */
+public class JacksonInjectionModule extends SimpleModule {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Attribute of the deserialization context holding the objects to inject once the outermost
+     * container is read
+     */
+    private static final Object BATCH = JacksonInjectionModule.class.getName() + ".batch";
+
+    /**
+     * Constructor
+     */
+    public JacksonInjectionModule() {
+        super(JacksonInjectionModule.class.getSimpleName());
+        setDeserializerModifier(new InjectingDeserializerModifier());
+    }
+
+    /**
+     * Wraps bean deserializers so that they inject the objects, and container deserializers so that
+     * they inject their elements in a batch
+     */
+    private static class InjectingDeserializerModifier extends BeanDeserializerModifier {
+        @Override
+        public JsonDeserializer<?> modifyDeserializer(final DeserializationConfig config,
+                                                      final BeanDescription beanDesc,
+                                                      final JsonDeserializer<?> deserializer) {
+            if (deserializer instanceof BeanDeserializerBase) {
+                return new InjectingDeserializer(deserializer);
+            }
+            return deserializer;
+        }
+
+        @Override
+        public JsonDeserializer<?> modifyArrayDeserializer(final DeserializationConfig config, final ArrayType valueType,
+                                                           final BeanDescription beanDesc,
+                                                           final JsonDeserializer<?> deserializer) {
+            // arrays of primitives do not hold objects to inject
+            return valueType.getContentType().isPrimitive() ? deserializer : new BatchingDeserializer(deserializer);
+        }
+
+        @Override
+        public JsonDeserializer<?> modifyCollectionDeserializer(final DeserializationConfig config,
+                                                                final CollectionType type,
+                                                                final BeanDescription beanDesc,
+                                                                final JsonDeserializer<?> deserializer) {
+            return new BatchingDeserializer(deserializer);
+        }
+
+        @Override
+        public JsonDeserializer<?> modifyMapDeserializer(final DeserializationConfig config, final MapType type,
+                                                         final BeanDescription beanDesc,
+                                                         final JsonDeserializer<?> deserializer) {
+            return new BatchingDeserializer(deserializer);
+        }
+    }
+
+    /**
+     * Injects the deserialized object, or adds it to the batch of the enclosing container
+     */
+    private static class InjectingDeserializer extends DelegatingDeserializer {
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Whether the deserialized class is injected, {@code null} until the first object is read
+         */
+        private volatile Boolean injectable;
+
+        InjectingDeserializer(final JsonDeserializer<?> delegatee) {
+            super(delegatee);
+        }
+
+        @Override
+        protected JsonDeserializer<?> newDelegatingInstance(final JsonDeserializer<?> newDelegatee) {
+            return new InjectingDeserializer(newDelegatee);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object deserialize(final JsonParser p, final DeserializationContext ctxt) throws IOException {
+            Object value = _delegatee.deserialize(p, ctxt);
+            SpringInjector injector = SpringInjector.get();
+            if (value != null && injector != null && isInjectable(injector, value.getClass())) {
+                List<Object> batch = (List<Object>) ctxt.getAttribute(BATCH);
+                if (batch != null) {
+                    batch.add(value);
+                } else {
+                    injector.inject(value);
+                }
+            }
+            return value;
+        }
+
+        private boolean isInjectable(final SpringInjector injector, final Class<?> clazz) {
+            Boolean result = injectable;
+            if (result == null) {
+                result = injector.isInjectable(clazz);
+                // the placeholder does not know factories registered with the injector bean later
+                if (!injector.isPlaceholder()) {
+                    injectable = result;
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Collects the objects deserialized within the outermost container and injects them at once
+     */
+    private static class BatchingDeserializer extends DelegatingDeserializer {
+        private static final long serialVersionUID = 1L;
+
+        BatchingDeserializer(final JsonDeserializer<?> delegatee) {
+            super(delegatee);
+        }
+
+        @Override
+        protected JsonDeserializer<?> newDelegatingInstance(final JsonDeserializer<?> newDelegatee) {
+            return new BatchingDeserializer(newDelegatee);
+        }
+
+        @Override
+        public Object deserialize(final JsonParser p, final DeserializationContext ctxt) throws IOException {
+            if (ctxt.getAttribute(BATCH) != null) {
+                // nested container, the outermost one injects
+                return _delegatee.deserialize(p, ctxt);
+            }
+            List<Object> batch = new ArrayList<>();
+            ctxt.setAttribute(BATCH, batch);
+            Object value;
+            try {
+                value = _delegatee.deserialize(p, ctxt);
+            } finally {
+                ctxt.setAttribute(BATCH, null);
+            }
+            SpringInjector injector = SpringInjector.get();
+            if (!batch.isEmpty() && injector != null) {
+                // queued in bootstrap mode
+                injector.injectAll(batch);
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.github.sabomichal.springinjector;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Registration;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import com.esotericsoftware.kryo.util.DefaultClassResolver;
+import com.esotericsoftware.kryo.util.MapReferenceResolver;
+import org.springframework.util.Assert;
+import org.springframework.util.ReflectionUtils;
+
+import java.io.ObjectStreamException;
+import java.lang.reflect.Field;
+
+/**
+ * <a href="https://github.com/EsotericSoftware/kryo">Kryo</a> serializers of lazy init proxies and
+ * bean locators. Kryo ignores {@code writeReplace} and {@code readResolve}, so without them it
+ * serializes the internals of a proxy, or fails on the generated proxy class. These serializers
+ * write the type of a proxy and the identity of its locator only, i.e. the bean name, the bean type
+ * and the injected field. On read the canonical locator is restored and the proxy shared by the
+ * locator is returned, or a new proxy if none.
+ * <p>
+ * Proxy classes are generated at runtime, their names differ between JVMs, so the Kryo instance has
+ * to use the {@link ProxyClassResolver} which writes all of them as {@link ILazyInitProxy}:
+ * <pre>
+ * Kryo kryo = KryoSerializers.createKryo();
+ * kryo.register(MyObject.class);
+ * </pre>
+ * Register the classes in the same order on every JVM, as usual with Kryo. The Kryo dependency is
+ * optional, this class is only loaded when used.
+ *
+ * @author Michal Sabo
+ */
+public final class KryoSerializers {
+
+    private KryoSerializers() {
+    }
+
+    /**
+     * Creates a Kryo instance with the serializers registered
+     *
+     * @return new Kryo instance
+     */
+    public static Kryo createKryo() {
+        Kryo kryo = new Kryo(new ProxyClassResolver(), new MapReferenceResolver());
+        register(kryo);
+        return kryo;
+    }
+
+    /**
+     * Registers the serializers of proxies, bean locators and the spring context locator of the
+     * injector
+     *
+     * @param kryo Kryo instance created with the {@link ProxyClassResolver}
+     */
+    public static void register(final Kryo kryo) {
+        Assert.isInstanceOf(ProxyClassResolver.class, kryo.getClassResolver(),
+                "Kryo must be created with the ProxyClassResolver.");
+        kryo.register(ILazyInitProxy.class, new ProxySerializer());
+        kryo.register(SpringBeanLocator.class, new SpringBeanLocatorSerializer());
+        kryo.register(SpringInjector.ContextLocator.class);
+    }
+
+    /**
+     * Class resolver writing all lazy init proxy classes as {@link ILazyInitProxy}
+     */
+    public static class ProxyClassResolver extends DefaultClassResolver {
+        @Override
+        @SuppressWarnings("rawtypes")
+        public Registration getRegistration(final Class type) {
+            if (type != ILazyInitProxy.class && type != null && ILazyInitProxy.class.isAssignableFrom(type)
+                    && LazyInitProxyFactory.IWriteReplace.class.isAssignableFrom(type)) {
+                return super.getRegistration(ILazyInitProxy.class);
+            }
+            return super.getRegistration(type);
+        }
+    }
+
+    /**
+     * Serializer of JDK and CGLib lazy init proxies
+     */
+    public static class ProxySerializer extends Serializer<Object> {
+        @Override
+        public void write(final Kryo kryo, final Output output, final Object proxy) {
+            LazyInitProxyFactory.ProxyReplacement replacement;
+            try {
+                replacement = (LazyInitProxyFactory.ProxyReplacement) ((LazyInitProxyFactory.IWriteReplace) proxy).writeReplace();
+            } catch (ObjectStreamException e) {
+                throw new IllegalStateException("error while replacing proxy of type [" + proxy.getClass().getName() + "]", e);
+            }
+            output.writeString(replacement.getType());
+            kryo.writeClassAndObject(output, replacement.getLocator());
+        }
+
+        @Override
+        public Object read(final Kryo kryo, final Input input, final Class<?> type) {
+            String proxiedType = input.readString();
+            IProxyTargetLocator locator = (IProxyTargetLocator) kryo.readClassAndObject(input);
+            return LazyInitProxyFactory.restoreProxy(proxiedType, locator, kryo.getClassLoader());
+        }
+    }
+
+    /**
+     * Serializer of bean locators, restoring their canonical instances
+     */
+    public static class SpringBeanLocatorSerializer extends Serializer<SpringBeanLocator> {
+        public SpringBeanLocatorSerializer() {
+            setImmutable(true);
+        }
+
+        @Override
+        public void write(final Kryo kryo, final Output output, final SpringBeanLocator locator) {
+            output.writeString(locator.getBeanName());
+            output.writeString(locator.getBeanTypeName());
+            Field field = locator.getField();
+            output.writeString(field != null ? field.getDeclaringClass().getName() : null);
+            output.writeString(field != null ? field.getName() : null);
+            kryo.writeClassAndObject(output, locator.getSpringContextLocator());
+        }
+
+        @Override
+        public SpringBeanLocator read(final Kryo kryo, final Input input, final Class<? extends SpringBeanLocator> type) {
+            String beanName = input.readString();
+            Class<?> beanType = resolveClass(kryo, input.readString());
+            String declaringClass = input.readString();
+            String fieldName = input.readString();
+            Field field = null;
+            if (declaringClass != null) {
+                field = ReflectionUtils.findField(resolveClass(kryo, declaringClass), fieldName);
+                Assert.state(field != null, "Field [" + declaringClass + "." + fieldName + "] not found");
+            }
+            ISpringContextLocator contextLocator = (ISpringContextLocator) kryo.readClassAndObject(input);
+            return new SpringBeanLocator(beanName, beanType, field, contextLocator).intern();
+        }
+
+        private static Class<?> resolveClass(final Kryo kryo, final String name) {
+            try {
+                return Class.forName(name, false, kryo.getClassLoader());
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException("Could not resolve class [" + name + "]", e);
+            }
+        }
+    }
+}
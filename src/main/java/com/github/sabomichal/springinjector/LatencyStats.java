@@ -0,0 +1,54 @@
+package com.github.sabomichal.springinjector;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Count, total and maximum duration of an operation
+ *
+ * @author Michal Sabo
+ */
+public final class LatencyStats {
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Records an operation
+     *
+     * @param nanos duration of the operation in nanoseconds
+     */
+    public void record(final long nanos) {
+        count.increment();
+        totalNanos.add(nanos);
+        if (nanos > maxNanos.get()) {
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * @return average duration in nanoseconds, {@code 0} if there were no operations
+     */
+    public long getAverageNanos() {
+        long operations = getCount();
+        return operations == 0 ? 0 : getTotalNanos() / operations;
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyStats[count=" + getCount() + ", averageNanos=" + getAverageNanos() + ", maxNanos="
+                + getMaxNanos() + "]";
+    }
+}
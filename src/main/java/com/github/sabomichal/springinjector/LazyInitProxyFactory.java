@@ -19,9 +19,11 @@ package com.github.sabomichal.springinjector;
 
 import net.sf.cglib.core.DefaultNamingPolicy;
 import net.sf.cglib.core.Predicate;
+import net.sf.cglib.core.ReflectUtils;
 import net.sf.cglib.proxy.Callback;
 import net.sf.cglib.proxy.CallbackFilter;
 import net.sf.cglib.proxy.Enhancer;
+import net.sf.cglib.proxy.Factory;
 import net.sf.cglib.proxy.MethodInterceptor;
 import net.sf.cglib.proxy.MethodProxy;
 import net.sf.cglib.proxy.NoOp;
@@ -35,6 +37,8 @@ import java.lang.reflect.Modifier;
 import java.lang.reflect.Proxy;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * A factory class that creates lazy init proxies given a type and a {@link IProxyTargetLocator}
@@ -110,6 +114,100 @@ class LazyInitProxyFactory {
     private static final int CGLIB_CALLBACK_NO_OVERRIDE = 0;
     private static final int CGLIB_CALLBACK_HANDLER = 1;
 
+    /**
+     * A proxy instance per proxied class, used as a factory of further proxies of the same class
+     * without going through the {@link Enhancer} again. The caches per class loader are created by
+     * the current factory of {@link Caches} after the factories are cleared.
+     */
+    private static final ClassMetaCache<Factory> CGLIB_FACTORIES = new ClassMetaCache<>(Caches.CGLIB_FACTORIES);
+    private static final SingleFlight<Class<?>, Class<?>> CGLIB_CLASS_FLIGHTS = new SingleFlight<>();
+
+    /**
+     * Proxies shared by all holders of equal locators, created anew by the current factory of
+     * {@link Caches} when cleared
+     */
+    private static volatile ICache<IProxyTargetLocator, Object> sharedProxies = Caches.create(Caches.SHARED_PROXIES);
+
+    /**
+     * Durations of locating the targets cached by proxies
+     */
+    private static final LatencyStats RESOLUTIONS = new LatencyStats();
+
+    /**
+     * Generation of the application context, targets located in an older generation are located
+     * again
+     */
+    private static volatile int epoch;
+
+    /**
+     * Invalidates the targets located by all proxies, e.g. when the application context is refreshed
+     * or closed. The targets are located again upon next method invocation.
+     */
+    static synchronized void advanceEpoch() {
+        epoch++;
+    }
+
+    /**
+     * Locates the target, recording the duration
+     *
+     * @param locator locator of the target
+     * @return target
+     */
+    private static Object locateTimed(final IProxyTargetLocator locator) {
+        long start = System.nanoTime();
+        try {
+            return locator.locateProxyTarget();
+        } finally {
+            RESOLUTIONS.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Returns the target resolved by a proxy handler if located in the current epoch, otherwise
+     * locates the target again. The handler stores the returned target if it differs from the
+     * current one and is cacheable.
+     *
+     * @param current target resolved by the handler so far, may be {@code null}
+     * @param locator locator of the target
+     * @return resolved target
+     */
+    private static ResolvedTarget resolve(final ResolvedTarget current, final IProxyTargetLocator locator) {
+        int epoch = LazyInitProxyFactory.epoch;
+        if (current != null && current.epoch == epoch) {
+            return current;
+        }
+        if (!locator.isTargetCacheable()) {
+            return new ResolvedTarget(locator.locateProxyTarget(), epoch, false);
+        }
+        // not deduplicated, the bean factory serializes the creation of singletons itself and a
+        // thread creating a bean under its lock must not wait for a thread waiting for that lock
+        return new ResolvedTarget(locateTimed(locator), epoch, true);
+    }
+
+    /**
+     * @return durations of locating the targets cached by proxies, targets located on every
+     * invocation are not recorded
+     */
+    static LatencyStats getResolutionStats() {
+        return RESOLUTIONS;
+    }
+
+    /**
+     * @return number of CGLib proxy classes generated per class loader of the proxied classes
+     */
+    static Map<ClassLoader, Integer> getProxyClassCounts() {
+        return CGLIB_FACTORIES.getSizes();
+    }
+
+    /**
+     * Performs the action for the locator of every shared proxy
+     *
+     * @param action action
+     */
+    static void forEachSharedProxy(final Consumer<IProxyTargetLocator> action) {
+        sharedProxies.forEach((locator, proxy) -> action.accept(locator));
+    }
+
     /**
      * Create a lazy init proxy for the specified type. The target object will be located using the
      * provided locator upon first method invocation.
@@ -143,15 +241,104 @@ class LazyInitProxyFactory {
             callbacks[CGLIB_CALLBACK_NO_OVERRIDE] = LazyInitProxyFactory.SerializableNoOpCallback.INSTANCE;
             callbacks[CGLIB_CALLBACK_HANDLER] = handler;
 
-            Enhancer e = new Enhancer();
-            e.setClassLoader(resolveClassLoader());
-            e.setInterfaces(new Class[]{Serializable.class, ILazyInitProxy.class, LazyInitProxyFactory.IWriteReplace.class});
-            e.setSuperclass(type);
-            e.setCallbackFilter(LazyInitProxyFactory.NoOpForProtectedMethodsCGLibCallbackFilter.INSTANCE);
-            e.setCallbacks(callbacks);
-            e.setNamingPolicy(InjectorNamingPolicy.INSTANCE);
+            Factory factory = CGLIB_FACTORIES.get(type);
+            if (factory != null) {
+                return factory.newInstance(callbacks);
+            }
+
+            // the proxy class is generated once for all threads missing concurrently, but instantiated
+            // outside of the flight: the constructor of the proxied class may inject itself and thus
+            // look beans up. A thread missing the factory after the flight gets the class from the
+            // cache of the enhancer.
+            Class<?> proxyClass = CGLIB_CLASS_FLIGHTS.execute(type, () -> createCGLibClass(type));
+            Factory proxy = newCGLibProxy(proxyClass, callbacks);
+            CGLIB_FACTORIES.put(type, proxy);
+            return proxy;
+        }
+    }
+
+    /**
+     * Generates the CGLib proxy class of the type, without instantiating it
+     *
+     * @param type type that proxy will represent
+     * @return proxy class
+     */
+    private static Class<?> createCGLibClass(final Class<?> type) {
+        Enhancer e = new Enhancer();
+        e.setClassLoader(resolveClassLoader());
+        e.setInterfaces(new Class[]{Serializable.class, ILazyInitProxy.class, LazyInitProxyFactory.IWriteReplace.class});
+        e.setSuperclass(type);
+        e.setCallbackFilter(LazyInitProxyFactory.NoOpForProtectedMethodsCGLibCallbackFilter.INSTANCE);
+        e.setCallbackTypes(new Class[]{NoOp.class, MethodInterceptor.class});
+        e.setNamingPolicy(InjectorNamingPolicy.INSTANCE);
+
+        return e.createClass();
+    }
 
-            return e.create();
+    /**
+     * Instantiates the CGLib proxy class, the proxy is used as a factory of further proxies
+     *
+     * @param proxyClass proxy class
+     * @param callbacks  callbacks of the proxy
+     * @return proxy
+     */
+    private static Factory newCGLibProxy(final Class<?> proxyClass, final Callback[] callbacks) {
+        Enhancer.registerCallbacks(proxyClass, callbacks);
+        try {
+            return (Factory) ReflectUtils.newInstance(proxyClass);
+        } finally {
+            // the proxy keeps its callbacks, they are not to be used by further instances
+            Enhancer.registerCallbacks(proxyClass, null);
+        }
+    }
+
+    /**
+     * Returns the lazy init proxy shared by all holders of locators equal to the specified one,
+     * creating it on first request. Meant for locators of shared targets, e.g. singleton beans.
+     * Deserialized proxies with an equal locator are replaced by the shared proxy as well.
+     *
+     * @param type    type that proxy will represent
+     * @param locator object locator that will locate the object the proxy represents
+     * @return shared lazily initializable proxy
+     */
+    static Object getSharedProxy(final Class<?> type, final IProxyTargetLocator locator) {
+        Object proxy = sharedProxies.get(locator);
+        if (proxy == null) {
+            proxy = createProxy(type, locator);
+            Object tmpProxy = sharedProxies.putIfAbsent(locator, proxy);
+            if (tmpProxy != null) {
+                proxy = tmpProxy;
+            }
+        }
+        return proxy;
+    }
+
+    /**
+     * Discards all shared proxies and CGLib proxy factories, the caches are created again by the
+     * current factory of {@link Caches}
+     */
+    static void clearCaches() {
+        sharedProxies = Caches.create(Caches.SHARED_PROXIES);
+        CGLIB_FACTORIES.clear();
+    }
+
+    /**
+     * Locates the target of a lazy init proxy created by this factory, unless located already, so
+     * that the first method invocation does not have to.
+     *
+     * @param proxy lazy init proxy
+     */
+    static void initializeTarget(final Object proxy) {
+        if (Proxy.isProxyClass(proxy.getClass())) {
+            InvocationHandler handler = Proxy.getInvocationHandler(proxy);
+            if (handler instanceof JdkHandler) {
+                ((JdkHandler) handler).getTarget();
+            }
+        } else if (proxy instanceof Factory) {
+            Callback callback = ((Factory) proxy).getCallback(CGLIB_CALLBACK_HANDLER);
+            if (callback instanceof AbstractCGLibInterceptor) {
+                ((AbstractCGLibInterceptor) callback).getTarget();
+            }
         }
     }
 
@@ -203,16 +390,41 @@ class LazyInitProxyFactory {
         }
 
         private Object readResolve() throws ObjectStreamException {
-            Class<?> clazz;
-            try {
-                clazz = Class.forName(type, false, Thread.currentThread().getContextClassLoader());
-            } catch (ClassNotFoundException e) {
-                ClassNotFoundException cause = new ClassNotFoundException(
-                        "Could not resolve type [" + type + "] with the currently configured org.apache.wicket.application.IClassResolver");
-                throw new RuntimeException(cause);
-            }
-            return LazyInitProxyFactory.createProxy(clazz, locator);
+            return restoreProxy(type, locator, Thread.currentThread().getContextClassLoader());
+        }
+
+        String getType() {
+            return type;
+        }
+
+        IProxyTargetLocator getLocator() {
+            return locator;
+        }
+    }
+
+    /**
+     * Returns a proxy of a deserialized locator: the shared proxy of an equal locator if there is
+     * one, a new proxy otherwise
+     *
+     * @param type        name of the type that proxy will represent
+     * @param locator     object locator that will locate the object the proxy represents
+     * @param classLoader class loader to resolve the type with
+     * @return lazily initializable proxy
+     */
+    static Object restoreProxy(final String type, final IProxyTargetLocator locator, final ClassLoader classLoader) {
+        Class<?> clazz;
+        try {
+            clazz = Class.forName(type, false, classLoader);
+        } catch (ClassNotFoundException e) {
+            ClassNotFoundException cause = new ClassNotFoundException(
+                    "Could not resolve type [" + type + "] with the currently configured org.apache.wicket.application.IClassResolver");
+            throw new RuntimeException(cause);
+        }
+        Object proxy = sharedProxies.get(locator);
+        if (proxy != null) {
+            return proxy;
         }
+        return LazyInitProxyFactory.createProxy(clazz, locator);
     }
 
     /**
@@ -228,7 +440,10 @@ class LazyInitProxyFactory {
 
         final String typeName;
 
-        private transient Object target;
+        /**
+         * Written racily, the final fields of the holder make it safe to read without a lock
+         */
+        private transient ResolvedTarget resolved;
 
         /**
          * Constructor
@@ -264,10 +479,22 @@ class LazyInitProxyFactory {
                 return getObjectLocator();
             }
 
-            if (target == null) {
-                target = locator.locateProxyTarget();
+            return proxy.invoke(getTarget(), args);
+        }
+
+        /**
+         * Returns the target of the proxy, locating it if not located yet or located before the
+         * application context has been refreshed
+         *
+         * @return proxy target
+         */
+        Object getTarget() {
+            ResolvedTarget current = resolved;
+            ResolvedTarget target = resolve(current, locator);
+            if (target != current && target.cacheable) {
+                resolved = target;
             }
-            return proxy.invoke(target, args);
+            return target.target;
         }
 
         /**
@@ -348,7 +575,10 @@ class LazyInitProxyFactory {
 
         private final String typeName;
 
-        private transient Object target;
+        /**
+         * Written racily, the final fields of the holder make it safe to read without a lock
+         */
+        private transient ResolvedTarget resolved;
 
         /**
          * Constructor
@@ -384,10 +614,7 @@ class LazyInitProxyFactory {
                 return writeReplace();
             }
 
-            if (target == null) {
-
-                target = locator.locateProxyTarget();
-            }
+            Object target = getTarget();
             try {
                 method.setAccessible(true);
                 return method.invoke(target, args);
@@ -396,6 +623,21 @@ class LazyInitProxyFactory {
             }
         }
 
+        /**
+         * Returns the target of the proxy, locating it if not located yet or located before the
+         * application context has been refreshed
+         *
+         * @return proxy target
+         */
+        Object getTarget() {
+            ResolvedTarget current = resolved;
+            ResolvedTarget target = resolve(current, locator);
+            if (target != current && target.cacheable) {
+                resolved = target;
+            }
+            return target.target;
+        }
+
         /**
          * @see ILazyInitProxy#getObjectLocator()
          */
@@ -413,6 +655,21 @@ class LazyInitProxyFactory {
         }
     }
 
+    /**
+     * Proxy target together with the epoch it was located in
+     */
+    private static final class ResolvedTarget {
+        final Object target;
+        final int epoch;
+        final boolean cacheable;
+
+        ResolvedTarget(final Object target, final int epoch, final boolean cacheable) {
+            this.target = target;
+            this.epoch = epoch;
+            this.cacheable = cacheable;
+        }
+    }
+
     /**
      * Checks if the method is derived from Object.equals()
      *
@@ -0,0 +1,314 @@
+package com.github.sabomichal.springinjector;
+
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Build time generator of GraalVM native-image reachability metadata for classes injected by
+ * {@link SpringInjector}. The classes found in the given packages are inspected the same way the
+ * injector does at runtime and the following files are written to the output directory:
+ * <ul>
+ * <li>{@code reflect-config.json} - every class declaring injectable fields, with the fields it
+ * declares, and every interface proxied by a lazy init proxy, with its public methods</li>
+ * <li>{@code proxy-config.json} - interfaces of the JDK proxies created for interface typed
+ * fields</li>
+ * <li>{@code serialization-config.json} - serializable injected classes and the objects proxies
+ * are replaced by when serialized, including the serializable type proxies Spring substitutes for
+ * the generic types of the injected fields</li>
+ * </ul>
+ * Fields of a concrete class type are proxied by CGLib, which generates classes at runtime and so
+ * can not be supported by a native image. Such fields are reported by {@link #getUnsupportedFields()}
+ * and should be changed to an interface type.
+ * <p>
+ * The generator only reads the class path, it can be run from the build, e.g. by the
+ * {@code exec-maven-plugin} in the {@code process-classes} phase:
+ * <pre>
+ * java com.github.sabomichal.springinjector.NativeImageMetadataGenerator &lt;output dir&gt; &lt;package&gt;...
+ * </pre>
+ *
+ * @author Michal Sabo
+ */
+public class NativeImageMetadataGenerator {
+
+    private static final Class<?>[] PROXY_INTERFACES = {Serializable.class, ILazyInitProxy.class,
+            LazyInitProxyFactory.IWriteReplace.class};
+    /**
+     * Classes of the serialized form of the {@link ResolvableType} of a field, see
+     * {@code org.springframework.core.SerializableTypeWrapper}
+     */
+    private static final String[] RESOLVABLE_TYPE_CLASSES = {ResolvableType.class.getName(),
+            ResolvableType.class.getName() + "$EmptyType",
+            "org.springframework.core.SerializableTypeWrapper$FieldTypeProvider",
+            "org.springframework.core.SerializableTypeWrapper$MethodInvokeTypeProvider",
+            "org.springframework.core.SerializableTypeWrapper$TypeProxyInvocationHandler"};
+    private static final String SERIALIZABLE_TYPE_PROXY = "org.springframework.core.SerializableTypeWrapper$SerializableTypeProxy";
+
+    private final ClassLoader classLoader;
+    private final CompositeFieldValueFactory fieldValueFactory = new CompositeFieldValueFactory(
+            new AnnotFieldValueFactory(null), new ValueFieldValueFactory(null));
+
+    private final Map<String, Class<?>> injectedClasses = new TreeMap<>();
+    private final Map<String, Class<?>> proxiedInterfaces = new TreeMap<>();
+    private final Set<String> serializableClasses = new TreeSet<>();
+    private final Map<String, Class<?>> genericTypeKinds = new TreeMap<>();
+    private final Set<String> unsupportedFields = new TreeSet<>();
+
+    /**
+     * Constructor
+     *
+     * @param classLoader class loader to load the scanned classes with
+     */
+    public NativeImageMetadataGenerator(final ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * Adds the field value factory in front of the factories the generator inspects the fields with,
+     * mirroring {@link SpringInjector#addFieldValueFactory(IFieldValueFactory)}.
+     *
+     * @param factory field value factory
+     */
+    public void addFieldValueFactory(final IFieldValueFactory factory) {
+        Assert.notNull(factory, "Argument factory can not be null.");
+        fieldValueFactory.addFirst(factory);
+    }
+
+    /**
+     * Inspects all classes in the packages and their subpackages
+     *
+     * @param basePackages packages to scan
+     */
+    public void scan(final String... basePackages) {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false) {
+            @Override
+            protected boolean isCandidateComponent(final AnnotatedBeanDefinition beanDefinition) {
+                // injected objects are not beans, any class may have injectable fields
+                return true;
+            }
+        };
+        scanner.setResourceLoader(new DefaultResourceLoader(classLoader));
+        scanner.addIncludeFilter((reader, factory) -> !reader.getClassMetadata().isInterface());
+
+        for (String basePackage : basePackages) {
+            for (BeanDefinition candidate : scanner.findCandidateComponents(basePackage)) {
+                inspect(ClassUtils.resolveClassName(candidate.getBeanClassName(), classLoader));
+            }
+        }
+    }
+
+    /**
+     * Inspects the class and its superclasses
+     *
+     * @param clazz class to inspect
+     */
+    public void inspect(final Class<?> clazz) {
+        for (Class<?> c = clazz; c != null && c != Object.class; c = c.getSuperclass()) {
+            if (injectedClasses.containsKey(c.getName())) {
+                return;
+            }
+            inspectFields(c);
+        }
+    }
+
+    private void inspectFields(final Class<?> clazz) {
+        boolean injectable = false;
+        for (Field field : clazz.getDeclaredFields()) {
+            IFieldValueFactory factory = fieldValueFactory.getFactory(field);
+            if (factory == null) {
+                continue;
+            }
+            injectable = true;
+
+            // only beans are proxied, values are set as they are
+            if (!(factory instanceof AnnotFieldValueFactory)) {
+                continue;
+            }
+            collectGenericTypeKinds(field.getGenericType());
+            Class<?> type = field.getType();
+            if (type.isInterface()) {
+                proxiedInterfaces.put(type.getName(), type);
+            } else {
+                unsupportedFields.add(clazz.getName() + "." + field.getName() + " (" + type.getName() + ")");
+            }
+        }
+
+        if (injectable) {
+            injectedClasses.put(clazz.getName(), clazz);
+            if (Serializable.class.isAssignableFrom(clazz)) {
+                serializableClasses.add(clazz.getName());
+            }
+        }
+    }
+
+    /**
+     * Collects the interfaces of the generic types, Spring replaces them by serializable JDK proxies
+     * implementing the same interface
+     */
+    private void collectGenericTypeKinds(final Type type) {
+        Class<?> kind;
+        Type[] nested;
+        if (type instanceof ParameterizedType) {
+            kind = ParameterizedType.class;
+            nested = ((ParameterizedType) type).getActualTypeArguments();
+        } else if (type instanceof WildcardType) {
+            kind = WildcardType.class;
+            nested = ((WildcardType) type).getUpperBounds();
+        } else if (type instanceof GenericArrayType) {
+            kind = GenericArrayType.class;
+            nested = new Type[]{((GenericArrayType) type).getGenericComponentType()};
+        } else if (type instanceof TypeVariable) {
+            kind = TypeVariable.class;
+            nested = new Type[0];
+        } else {
+            return;
+        }
+        genericTypeKinds.put(kind.getName(), kind);
+        for (Type t : nested) {
+            collectGenericTypeKinds(t);
+        }
+    }
+
+    /**
+     * Writes the metadata files to the directory, creating it if necessary
+     *
+     * @param outputDir output directory, usually {@code META-INF/native-image/<group>/<artifact>}
+     * @throws IOException if the files can not be written
+     */
+    public void write(final Path outputDir) throws IOException {
+        Files.createDirectories(outputDir);
+        write(outputDir.resolve("reflect-config.json"), reflectConfig());
+        write(outputDir.resolve("proxy-config.json"), proxyConfig());
+        write(outputDir.resolve("serialization-config.json"), serializationConfig());
+    }
+
+    /**
+     * @return fields that are proxied by CGLib and can not be used in a native image
+     */
+    public Set<String> getUnsupportedFields() {
+        return Collections.unmodifiableSet(unsupportedFields);
+    }
+
+    private List<String> reflectConfig() {
+        List<String> entries = new ArrayList<>();
+        for (Class<?> clazz : injectedClasses.values()) {
+            InjectWith injectWith = clazz.getAnnotation(InjectWith.class);
+            if (injectWith != null && injectWith.value() == InjectionEngine.AUTOWIRE) {
+                // the bean factory also autowires methods and reads the constructors
+                entries.add("{\"name\":" + quote(clazz.getName()) + ",\"allDeclaredFields\":true,"
+                        + "\"allDeclaredMethods\":true,\"allDeclaredConstructors\":true}");
+            } else {
+                entries.add("{\"name\":" + quote(clazz.getName()) + ",\"allDeclaredFields\":true}");
+            }
+        }
+        for (Class<?> type : proxiedInterfaces.values()) {
+            entries.add("{\"name\":" + quote(type.getName()) + ",\"allPublicMethods\":true}");
+        }
+        return entries;
+    }
+
+    private List<String> proxyConfig() {
+        List<String> entries = new ArrayList<>();
+        for (Class<?> type : proxiedInterfaces.values()) {
+            StringBuilder interfaces = new StringBuilder(quote(type.getName()));
+            for (Class<?> proxyInterface : PROXY_INTERFACES) {
+                interfaces.append(',').append(quote(proxyInterface.getName()));
+            }
+            entries.add("{\"interfaces\":[" + interfaces + "]}");
+        }
+        return entries;
+    }
+
+    private String serializationConfig() {
+        Set<String> names = new TreeSet<>(serializableClasses);
+        List<String> proxies = new ArrayList<>();
+        if (!names.isEmpty()) {
+            // proxies are serialized as a replacement holding the bean locator and the field type
+            names.addAll(Arrays.asList(LazyInitProxyFactory.ProxyReplacement.class.getName(),
+                    SpringBeanLocator.class.getName(), SpringInjector.class.getName() + "$ContextLocator"));
+            names.addAll(Arrays.asList(RESOLVABLE_TYPE_CLASSES));
+            for (Class<?> kind : genericTypeKinds.values()) {
+                proxies.add("{\"interfaces\":[" + quote(kind.getName()) + "," + quote(SERIALIZABLE_TYPE_PROXY)
+                        + "," + quote(Serializable.class.getName()) + "]}");
+            }
+        }
+        List<String> types = new ArrayList<>();
+        for (String name : names) {
+            types.add("{\"name\":" + quote(name) + "}");
+        }
+        return "{\n\"types\":" + array(types) + ",\n\"proxies\":" + array(proxies) + "\n}\n";
+    }
+
+    private static void write(final Path file, final List<String> entries) throws IOException {
+        write(file, array(entries) + "\n");
+    }
+
+    private static void write(final Path file, final String json) throws IOException {
+        Files.write(file, json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String array(final List<String> entries) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < entries.size(); i++) {
+            json.append(i == 0 ? "\n  " : ",\n  ").append(entries.get(i));
+        }
+        return json.append("\n]").toString();
+    }
+
+    private static String quote(final String value) {
+        StringBuilder quoted = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                quoted.append('\\');
+            }
+            quoted.append(c);
+        }
+        return quoted.append('"').toString();
+    }
+
+    /**
+     * Generates the metadata for the classes of the packages
+     *
+     * @param args output directory followed by the packages to scan
+     * @throws IOException if the files can not be written
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: NativeImageMetadataGenerator <output dir> <package>...");
+            System.exit(1);
+        }
+        NativeImageMetadataGenerator generator = new NativeImageMetadataGenerator(
+                ClassUtils.getDefaultClassLoader());
+        generator.scan(Arrays.copyOfRange(args, 1, args.length));
+        generator.write(Paths.get(args[0]));
+        for (String field : generator.getUnsupportedFields()) {
+            System.err.println("WARNING: field " + field + " is proxied by CGLib, which is not supported "
+                    + "in a native image, use an interface type");
+        }
+    }
+}
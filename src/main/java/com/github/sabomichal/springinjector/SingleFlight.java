@@ -0,0 +1,72 @@
+package com.github.sabomichal.springinjector;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicates concurrent computations of the same key: the first thread computes the result, the
+ * other threads asking for the same key meanwhile wait for it. Threads asking for other keys are not
+ * blocked. Results are not kept once computed, the computation is expected to store them in a cache
+ * the callers check first. Computations must not take locks of the bean factory, a thread holding
+ * such a lock while asking for the key would wait for a thread waiting for the lock.
+ *
+ * @param <K> type of keys
+ * @param <V> type of results
+ * @author Michal Sabo
+ */
+final class SingleFlight<K, V> {
+    private final ConcurrentMap<K, Flight<V>> flights = new ConcurrentHashMap<>();
+
+    /**
+     * Computes the result of the key, or waits for the thread already computing it. A thread
+     * asking for a key it is computing itself, e.g. when the computation injects an object of the
+     * same class, computes the result again instead of waiting for itself.
+     *
+     * @param key      key
+     * @param supplier computation of the result
+     * @return result
+     */
+    V execute(final K key, final Supplier<V> supplier) {
+        Flight<V> flight = new Flight<>();
+        Flight<V> running = flights.putIfAbsent(key, flight);
+        if (running != null) {
+            if (running.owner == Thread.currentThread()) {
+                return supplier.get();
+            }
+            return await(running);
+        }
+
+        try {
+            V value = supplier.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            flights.remove(key, flight);
+        }
+    }
+
+    private static <V> V await(final Flight<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    private static final class Flight<V> extends CompletableFuture<V> {
+        final Thread owner = Thread.currentThread();
+    }
+}
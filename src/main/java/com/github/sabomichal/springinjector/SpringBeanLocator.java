@@ -1,5 +1,6 @@
 package com.github.sabomichal.springinjector;
 
+import org.springframework.beans.factory.BeanFactoryUtils;
 import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
@@ -9,6 +10,7 @@ import org.springframework.context.support.AbstractApplicationContext;
 import org.springframework.core.ResolvableType;
 import org.springframework.util.Assert;
 
+import java.io.ObjectStreamException;
 import java.lang.ref.WeakReference;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
@@ -22,6 +24,12 @@ import java.util.Set;
  * Implementation that can locate beans within a spring application
  * context. Beans are looked up by the combination of name and type, if name is omitted only type is
  * used.
+ * <p>
+ * Locators are flyweights: instances created by {@link AnnotFieldValueFactory} and deserialized
+ * instances are replaced by a canonical instance shared by all fields with the same type, generic
+ * signature and bean name. The canonical instances are kept in the
+ * {@value Caches#CANONICAL_LOCATORS} cache; if it is bounded, evicted locators are replaced by new
+ * canonical instances.
  *
  * @author Igor Vaynberg (ivaynberg)
  * @author Istvan Devai
@@ -29,12 +37,29 @@ import java.util.Set;
 public class SpringBeanLocator implements IProxyTargetLocator {
     private static final long serialVersionUID = 1L;
 
+    private static final byte SCOPE_UNKNOWN = 0;
+    private static final byte SCOPE_SINGLETON = 1;
+    private static final byte SCOPE_PROTOTYPE = 2;
+    private static final byte SCOPE_OTHER = 3;
+
+    private static final byte AVAILABILITY_UNKNOWN = 0;
+    private static final byte AVAILABILITY_PRESENT = 1;
+    private static final byte AVAILABILITY_MISSING = 2;
+
+    /**
+     * Canonical instances of locators, shared by all fields with the same signature and bean name.
+     * Created anew by the current factory of {@link Caches} when cleared.
+     */
+    private static volatile ICache<SpringBeanLocator, SpringBeanLocator> canonical = Caches.create(Caches.CANONICAL_LOCATORS);
+
     // Weak reference so we don't hold up WebApp classloader garbage collection.
-    private transient WeakReference<Class<?>> beanTypeCache;
+    private transient volatile WeakReference<Class<?>> beanTypeCache;
     private final ISpringContextLocator springContextLocator;
     private final String beanTypeName;
-    private String beanName;
-    private Boolean singletonCache = null;
+    private final String beanName;
+    private volatile String resolvedBeanName;
+    private transient volatile byte scope = SCOPE_UNKNOWN;
+    private transient volatile byte availability = AVAILABILITY_UNKNOWN;
 
     /**
      * Resolvable type for field to inject
@@ -92,17 +117,98 @@ public class SpringBeanLocator implements IProxyTargetLocator {
      * not
      */
     boolean isSingletonBean() {
-        if (singletonCache == null) {
-            singletonCache = getBeanName() != null && getSpringContext().isSingleton(getBeanName());
+        return getScope() == SCOPE_SINGLETON;
+    }
+
+    /**
+     * @return returns whether the bean (the locator is supposed to istantiate) is a prototype or
+     * not
+     */
+    boolean isPrototypeBean() {
+        return getScope() == SCOPE_PROTOTYPE;
+    }
+
+    /**
+     * @return scope of the bean, resolved once
+     */
+    private byte getScope() {
+        byte scope = this.scope;
+        if (scope == SCOPE_UNKNOWN) {
+            if (getBeanName() == null) {
+                // bean is resolved by generic type on first lookup, the scope is not known yet
+                return SCOPE_UNKNOWN;
+            }
+            ApplicationContext ctx = getSpringContext();
+            if (ctx.isSingleton(getBeanName())) {
+                scope = SCOPE_SINGLETON;
+            } else if (ctx.isPrototype(getBeanName())) {
+                scope = SCOPE_PROTOTYPE;
+            } else {
+                scope = SCOPE_OTHER;
+            }
+            this.scope = scope;
+        }
+        return scope;
+    }
+
+    /**
+     * @return returns whether the bean (the locator is supposed to istantiate) lives in a scope
+     * other than singleton and prototype, e.g. request or session
+     */
+    boolean isScopedBean() {
+        return getScope() == SCOPE_OTHER;
+    }
+
+    /**
+     * Tells whether the application context contains a bean the locator can locate. Resolved once,
+     * locators are discarded when the context is refreshed.
+     *
+     * @return true if there is a candidate bean, false otherwise
+     */
+    boolean isBeanAvailable() {
+        byte availability = this.availability;
+        if (availability == AVAILABILITY_UNKNOWN) {
+            availability = hasCandidates(getSpringContext()) ? AVAILABILITY_PRESENT : AVAILABILITY_MISSING;
+            this.availability = availability;
+        }
+        return availability == AVAILABILITY_PRESENT;
+    }
+
+    /**
+     * @param ctx spring application context
+     * @return true if the context contains a bean of the name or, if the name is omitted, of the
+     * type of the field or of its elements
+     */
+    private boolean hasCandidates(final ApplicationContext ctx) {
+        if (getBeanName() != null) {
+            return ctx.containsBean(getBeanName());
+        }
+        Class<?> clazz = getBeanType();
+        if (fieldResolvableType == null) {
+            return BeanFactoryUtils.beanNamesForTypeIncludingAncestors(ctx, clazz).length > 0;
         }
-        return singletonCache;
+        Class<?> lookupClass = fieldElementsResolvableType != null ?
+                fieldElementsResolvableType.resolve() : clazz;
+        return !loadBeanNames(ctx, lookupClass).isEmpty();
+    }
+
+    /**
+     * Targets of scoped beans are not cacheable, the bean valid in the current scope is looked up
+     * on every invocation. The scope itself keeps the bean, so the lookup is cheap.
+     *
+     * @return true if the bean is not scoped, false otherwise
+     */
+    @Override
+    public boolean isTargetCacheable() {
+        return !isScopedBean();
     }
 
     /**
      * @return bean class this locator is configured with
      */
     private Class<?> getBeanType() {
-        Class<?> clazz = beanTypeCache == null ? null : beanTypeCache.get();
+        WeakReference<Class<?>> typeCache = beanTypeCache;
+        Class<?> clazz = typeCache == null ? null : typeCache.get();
         if (clazz == null) {
             beanTypeCache = new WeakReference<>(
                     clazz = resolveClass(beanTypeName));
@@ -132,7 +238,36 @@ public class SpringBeanLocator implements IProxyTargetLocator {
     }
 
     public Object locateProxyTarget() {
-        return lookupSpringBean(getSpringContext(), beanName, getBeanType());
+        String name = resolvedBeanName;
+        return lookupSpringBean(getSpringContext(), name != null ? name : beanName, getBeanType());
+    }
+
+    /**
+     * Returns the canonical instance of this locator. All fields with the same type, generic
+     * signature and bean name share one locator instance.
+     *
+     * @return canonical locator
+     */
+    SpringBeanLocator intern() {
+        SpringBeanLocator interned = canonical.putIfAbsent(this, this);
+        return interned != null ? interned : this;
+    }
+
+    /**
+     * Discards all canonical locators
+     */
+    static void clearInterned() {
+        canonical = Caches.create(Caches.CANONICAL_LOCATORS);
+    }
+
+    /**
+     * Replaces a deserialized locator with its canonical instance
+     *
+     * @return canonical locator
+     * @throws ObjectStreamException never
+     */
+    private Object readResolve() throws ObjectStreamException {
+        return intern();
     }
 
     /**
@@ -149,10 +284,31 @@ public class SpringBeanLocator implements IProxyTargetLocator {
     /**
      * @return bean name this locator is configured with
      */
-    private String getBeanName() {
+    String getBeanName() {
         return beanName;
     }
 
+    /**
+     * @return name of the bean class this locator is configured with
+     */
+    String getBeanTypeName() {
+        return beanTypeName;
+    }
+
+    /**
+     * @return field the locator has been created for, or {@code null} if none
+     */
+    Field getField() {
+        return fieldResolvableType != null ? (Field) fieldResolvableType.getSource() : null;
+    }
+
+    /**
+     * @return spring context locator
+     */
+    ISpringContextLocator getSpringContextLocator() {
+        return springContextLocator;
+    }
+
     /**
      * Looks up a bean by its name and class. Throws IllegalState exception if bean not found.
      *
@@ -257,7 +413,7 @@ public class SpringBeanLocator implements IProxyTargetLocator {
             boolean elementMatch = fieldElementsResolvableType != null && fieldElementsResolvableType.isAssignableFrom(candidateResolvableType);
 
             if (exactMatch) {
-                this.beanName = beanName;
+                this.resolvedBeanName = beanName;
                 return ctx.getBean(beanName);
             }
 
@@ -275,7 +431,8 @@ public class SpringBeanLocator implements IProxyTargetLocator {
         if (obj instanceof SpringBeanLocator) {
             SpringBeanLocator other = (SpringBeanLocator) obj;
             return beanTypeName.equals(other.beanTypeName) &&
-                    Objects.equals(beanName, other.beanName);
+                    Objects.equals(beanName, other.beanName) &&
+                    Objects.equals(fieldResolvableType, other.fieldResolvableType);
         }
         return false;
     }
@@ -286,6 +443,9 @@ public class SpringBeanLocator implements IProxyTargetLocator {
         if (getBeanName() != null) {
             hashcode = hashcode + (127 * beanName.hashCode());
         }
+        if (fieldResolvableType != null) {
+            hashcode = 31 * hashcode + fieldResolvableType.hashCode();
+        }
         return hashcode;
     }
 
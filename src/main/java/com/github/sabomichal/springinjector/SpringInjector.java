@@ -1,117 +1,699 @@
 package com.github.sabomichal.springinjector;
 
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ApplicationContextEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
 
 import javax.inject.Inject;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * SpringInjector scans fields of an object instance and checks if the specified
- * {@link AnnotFieldValueFactory} can provide a value for a field; if it can, the field is set to that
+ * SpringInjector scans fields of an object instance and checks if one of the configured
+ * {@link IFieldValueFactory} instances can provide a value for a field; if it can, the field is set to that
  * value. SpringInjector will ignore all non-null fields.
+ * <p>
+ * Every injectable field is bound to its factory when the class is injected for the first time,
+ * the bindings are then cached per class. By default fields annotated with {@link Inject},
+ * {@link org.springframework.beans.factory.annotation.Autowired} or {@code javax.annotation.Resource}
+ * are injected by the {@link AnnotFieldValueFactory} and fields annotated with
+ * {@link org.springframework.beans.factory.annotation.Value} by the {@link ValueFieldValueFactory}.
+ * Further factories can be registered using
+ * {@link #addFieldValueFactory(IFieldValueFactory)}.
+ * <p>
+ * Objects that do not need serializable lazy init proxies can be injected by Spring itself, see
+ * {@link InjectionEngine#AUTOWIRE}. The engine is selected globally by
+ * {@link #setDefaultEngine(InjectionEngine)} or per class by {@link InjectWith}.
+ * <p>
+ * Objects can be injected asynchronously by {@link #injectAsync(Object)}, targets of the injected
+ * lazy init proxies can be located in parallel by {@link #resolveAll(Object)}.
+ * <p>
+ * Objects created before the application context is ready can be injected in
+ * {@link #enableBootstrapMode() bootstrap mode}; they are queued and injected in one batch once the
+ * context is refreshed.
  *
  * @author Igor Vaynberg (ivaynberg)
  * @author Michal Sabo
  */
 @Component
-public class SpringInjector {
+public class SpringInjector implements ApplicationListener<ApplicationContextEvent>, DisposableBean {
 
     @Inject
     private ApplicationContext applicationContext;
 
-    private static SpringInjector instance;
+    private static volatile SpringInjector instance;
 
-    private final ClassMetaCache<Field[]> cache = new ClassMetaCache<>();
-    private IFieldValueFactory fieldValueFactory = new AnnotFieldValueFactory(new ContextLocator());
+    private static final Object DEFERRED_LOCK = new Object();
+    private static final int DEFAULT_PROMOTION_THRESHOLD = 1000;
+    /**
+     * Objects waiting for the application context to be refreshed, {@code null} unless in bootstrap
+     * mode
+     */
+    private static volatile List<Object> deferred;
+    /**
+     * Injector returned by {@link #get()} in bootstrap mode before the injector bean is created
+     */
+    private static volatile SpringInjector placeholder;
+
+    private final ClassMetaCache<ClassMetadata> cache = new ClassMetaCache<>(Caches.METADATA);
+    private final SingleFlight<Class<?>, ClassMetadata> metadataFlights = new SingleFlight<>();
+    private final AnnotFieldValueFactory annotFieldValueFactory = new AnnotFieldValueFactory(new ContextLocator());
+    private final ValueFieldValueFactory valueFieldValueFactory = new ValueFieldValueFactory(new ContextLocator());
+    private final CompositeFieldValueFactory fieldValueFactory = new CompositeFieldValueFactory(
+            annotFieldValueFactory, valueFieldValueFactory);
+    private volatile InjectionEngine defaultEngine = InjectionEngine.PROXY;
+    private volatile Executor executor = createDefaultExecutor();
+    private volatile FrozenMetadata frozen;
+    private volatile int promotionThreshold = DEFAULT_PROMOTION_THRESHOLD;
+    private final AtomicLong promotions = new AtomicLong();
+    /**
+     * Incremented whenever the metadata are discarded, so that metadata discovered or promoted before
+     * are not cached anymore, written under the lock of this
+     */
+    private volatile int metadataGeneration;
+    private final boolean isPlaceholder;
+    private volatile boolean refreshed;
+    /**
+     * Set once the objects queued in bootstrap mode have been injected. Deliberately not volatile:
+     * once a thread sees it set, injection skips the bootstrap check, a stale value only costs the
+     * check.
+     */
+    private boolean bootstrapFinished;
 
     private SpringInjector() {
+        isPlaceholder = false;
         instance = this;
     }
 
+    private SpringInjector(final boolean isPlaceholder) {
+        this.isPlaceholder = isPlaceholder;
+    }
+
+    /**
+     * Returns the injector. In bootstrap mode a placeholder queueing the injected objects is
+     * returned until the injector bean is created.
+     *
+     * @return the injector, or {@code null} if the injector bean has not been created yet and the
+     * bootstrap mode is off
+     * @see #enableBootstrapMode()
+     */
     public static SpringInjector get() {
-        return instance;
+        SpringInjector injector = instance;
+        return injector != null ? injector : placeholder;
+    }
+
+    /**
+     * Enables the bootstrap mode. Objects injected before the application context is refreshed,
+     * even before the injector bean is created, are queued and injected in one batch as soon as
+     * the refresh completes. Has no effect if the context has been refreshed already. If the context
+     * is closed or fails to refresh, the queued objects are dropped uninjected.
+     */
+    public static void enableBootstrapMode() {
+        synchronized (DEFERRED_LOCK) {
+            SpringInjector injector = instance;
+            if (injector != null && injector.refreshed) {
+                return;
+            }
+            if (deferred == null) {
+                deferred = new ArrayList<>();
+            }
+            if (placeholder == null) {
+                placeholder = new SpringInjector(true);
+            }
+        }
+    }
+
+    /**
+     * Queues the objects if in bootstrap mode
+     *
+     * @param objects objects to inject
+     * @return true if the objects have been queued, false if the bootstrap has finished
+     */
+    private static boolean defer(final Collection<?> objects) {
+        synchronized (DEFERRED_LOCK) {
+            List<Object> queue = deferred;
+            if (queue == null) {
+                return false;
+            }
+            queue.addAll(objects);
+            return true;
+        }
+    }
+
+    /**
+     * Leaves the bootstrap mode and injects all queued objects
+     */
+    private void injectDeferred() {
+        List<Object> queue;
+        synchronized (DEFERRED_LOCK) {
+            queue = deferred;
+            deferred = null;
+        }
+        if (queue != null) {
+            injectAll(queue);
+        }
+    }
+
+    /**
+     * Drops the objects queued in bootstrap mode if the context is destroyed before it has been
+     * refreshed, so that they are not kept forever
+     */
+    @Override
+    public void destroy() {
+        synchronized (DEFERRED_LOCK) {
+            if (!refreshed) {
+                deferred = null;
+            }
+        }
+    }
+
+    /**
+     * Discards cached values, bean names and shared proxies when the application context is
+     * refreshed or closed, so that the changed environment and bean definitions are picked up.
+     * Targets already located by lazy init proxies are located again upon next invocation, so that
+     * beans of a closed context are not called anymore. Objects queued in bootstrap mode are
+     * injected once the context is refreshed.
+     *
+     * @param event context refreshed or closed event
+     */
+    @Override
+    public void onApplicationEvent(final ApplicationContextEvent event) {
+        if (event.getApplicationContext() != applicationContext) {
+            return;
+        }
+        if (event instanceof ContextRefreshedEvent) {
+            clearCache();
+            LazyInitProxyFactory.advanceEpoch();
+            refreshed = true;
+            injectDeferred();
+            bootstrapFinished = true;
+        } else if (event instanceof ContextClosedEvent) {
+            clearCache();
+            LazyInitProxyFactory.advanceEpoch();
+        }
+    }
+
+    /**
+     * Compacts the metadata of all classes injected so far into an immutable table, published at
+     * once. Fields of these classes injecting singleton or scoped beans are bound directly to their
+     * shared proxies, fields injecting immutable values to the resolved values, so that the injection
+     * does not look them up anymore. Classes not injected before are looked up as usual. Meant to be called
+     * after warm-up, once the set of injected classes does not change anymore; the table is dropped
+     * whenever the caches are cleared, e.g. on context refresh.
+     */
+    public void freeze() {
+        Assert.state(!isPlaceholder, "SpringInjector bean has not been created");
+        int generation = metadataGeneration;
+        Map<ClassMetadata, ClassMetadata> copies = new IdentityHashMap<>();
+        cache.forEachValue(metadata -> metadata.copy(this::bindConstant, copies));
+        FrozenMetadata table = new FrozenMetadata(copies.values());
+        synchronized (this) {
+            if (generation == metadataGeneration) {
+                frozen = table;
+            }
+        }
     }
 
     /**
-     * Injects the specified object. This method is usually implemented by delegating to
-     * {@link #inject(Object, IFieldValueFactory)} with some {@link AnnotFieldValueFactory}
+     * Binds the field to its value if the value does not change until the caches are cleared
+     *
+     * @param binding field binding
+     * @return binding to a constant value, or the given binding
+     */
+    private FieldBinding bindConstant(final FieldBinding binding) {
+        Object constant = null;
+        if (binding.getFactory() == annotFieldValueFactory) {
+            constant = annotFieldValueFactory.getSharedFieldValue(binding.getField());
+        } else if (binding.getFactory() == valueFieldValueFactory) {
+            constant = valueFieldValueFactory.getSharedFieldValue(binding.getField());
+        }
+        return constant != null ? new FieldBinding(binding.getField(), binding.getFactory(), constant) : binding;
+    }
+
+    /**
+     * Sets the number of injections of a class after which the class is promoted: its metadata
+     * are replaced, in the background, by metadata with fields bound directly to shared proxies and
+     * immutable resolved values, as if {@link #freeze() frozen}. Rarely injected classes stay with the
+     * metadata looking the values up on every injection. Injections are counted exactly for
+     * thresholds below 128, larger thresholds are reached approximately.
+     *
+     * @param promotionThreshold number of injections, 0 to never promote
+     */
+    public void setPromotionThreshold(final int promotionThreshold) {
+        Assert.isTrue(promotionThreshold >= 0, "Argument promotionThreshold can not be negative.");
+        this.promotionThreshold = promotionThreshold;
+    }
+
+    /**
+     * @return number of classes promoted so far
+     * @see #setPromotionThreshold(int)
+     */
+    public long getPromotionCount() {
+        return promotions.get();
+    }
+
+    /**
+     * Looks up the injection metadata, bean locators, shared proxies and values of the class ahead of
+     * its first injection, and promotes the class, so that even its first instances are injected
+     * without further lookups. The targets of the proxies are not located. Meant to be called once
+     * the application context is refreshed.
+     *
+     * @param clazz class to warm up
+     */
+    public void warmUp(final Class<?> clazz) {
+        Assert.state(!isPlaceholder, "SpringInjector bean has not been created");
+        ClassMetadata metadata = getMetadata(clazz);
+        if (metadata.isBound() || metadata.getEngine() == InjectionEngine.AUTOWIRE || metadata.isEmpty()) {
+            return;
+        }
+        cacheMetadata(metadata.copy(this::bindConstant, new IdentityHashMap<>()));
+    }
+
+    /**
+     * Takes a snapshot of the caches, proxies and promotions, e.g. for monitoring
+     *
+     * @return diagnostics
+     */
+    public InjectorDiagnostics getDiagnostics() {
+        Assert.state(!isPlaceholder, "SpringInjector bean has not been created");
+        return new InjectorDiagnostics(annotFieldValueFactory, cache.getSizes(), promotions.get());
+    }
+
+    /**
+     * Promotes the class in the background, the promoted metadata are swapped in unless the metadata
+     * have been discarded since they were discovered. If the executor rejects the promotion, e.g. when saturated or
+     * shut down, the class stays unpromoted until the threshold is reached again.
+     *
+     * @param metadata metadata of the class
+     */
+    private void schedulePromotion(final ClassMetadata metadata) {
+        try {
+            executor.execute(() -> {
+                if (cacheMetadata(metadata.copy(this::bindConstant, new IdentityHashMap<>()))) {
+                    promotions.incrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            metadata.cancelPromotion();
+        }
+    }
+
+    /**
+     * Caches the metadata unless the metadata have been discarded since they were discovered, so
+     * that metadata bound to a replaced engine or factory chain are not kept
+     *
+     * @param metadata metadata to cache
+     * @return true if the metadata have been cached
+     */
+    private synchronized boolean cacheMetadata(final ClassMetadata metadata) {
+        if (metadata.getGeneration() != metadataGeneration) {
+            return false;
+        }
+        cache.put(metadata.getType(), metadata);
+        return true;
+    }
+
+    /**
+     * Discards cached, frozen and promoted metadata
+     */
+    private synchronized void discardMetadata() {
+        metadataGeneration++;
+        frozen = null;
+        cache.clear();
+    }
+
+    /**
+     * Discards all cached class metadata, bean names, locators, proxies and values. Objects injected
+     * afterwards are injected as if the injector has just been created.
+     */
+    public void clearCache() {
+        annotFieldValueFactory.clearCache();
+        valueFieldValueFactory.clearCache();
+        // after the values, promotions binding the discarded values are dropped
+        discardMetadata();
+    }
+
+    /**
+     * Registers a custom field value factory. The factory takes precedence over the factories
+     * already registered. Cached field bindings are discarded.
+     *
+     * @param factory field value factory
+     */
+    public void addFieldValueFactory(final IFieldValueFactory factory) {
+        fieldValueFactory.addFirst(factory);
+        discardMetadata();
+    }
+
+    /**
+     * Sets the engine used for classes not annotated with {@link InjectWith}. Cached class metadata
+     * is discarded.
+     *
+     * @param engine injection engine
+     */
+    public void setDefaultEngine(final InjectionEngine engine) {
+        Assert.notNull(engine, "Argument engine can not be null.");
+        defaultEngine = engine;
+        discardMetadata();
+    }
+
+    /**
+     * traverse fields in the class hierarchy of the object and set their value with the field value
+     * factory each field is bound to. Objects of classes using the {@link InjectionEngine#AUTOWIRE}
+     * engine are autowired by the spring bean factory instead.
      *
      * @param object object to inject
-     * @see #inject(Object, IFieldValueFactory)
      */
     public void inject(final Object object) {
-        inject(object, fieldValueFactory);
+        if (!bootstrapFinished && deferred != null && defer(Collections.singletonList(object))) {
+            return;
+        }
+        if (isPlaceholder) {
+            SpringInjector injector = instance;
+            Assert.state(injector != null, "SpringInjector bean has not been created");
+            injector.inject(object);
+            return;
+        }
+        inject(object, getMetadata(object.getClass()));
     }
 
     /**
-     * traverse fields in the class hierarchy of the object and set their value with a locator
-     * provided by the locator factory.
+     * Injects the specified objects, the injection metadata are looked up once per class. Proxies
+     * of singleton and scoped beans and values shared by objects of the same class are resolved
+     * once per class as well. In bootstrap mode the objects are queued like by {@link #inject(Object)}.
      *
-     * @param object object to traverse
-     * @param factory locator factory
+     * @param objects objects to inject
      */
-    protected void inject(final Object object, final IFieldValueFactory factory) {
-        final Class<?> clazz = object.getClass();
-        Field[] fields;
+    public void injectAll(final Collection<?> objects) {
+        if (!bootstrapFinished && deferred != null && defer(objects)) {
+            return;
+        }
+        if (isPlaceholder) {
+            SpringInjector injector = instance;
+            Assert.state(injector != null, "SpringInjector bean has not been created");
+            injector.injectAll(objects);
+            return;
+        }
 
-        // try cache
-        fields = cache.get(clazz);
-        if (fields == null) {
-            // cache miss, discover fields
-            fields = findFields(clazz, factory);
-            // write to cache
-            cache.put(clazz, fields);
+        // group the objects by class, keep the order within the class
+        Map<Class<?>, List<Object>> byClass = new LinkedHashMap<>();
+        for (final Object object : objects) {
+            byClass.computeIfAbsent(object.getClass(), c -> new ArrayList<>()).add(object);
         }
 
-        for (final Field field : fields) {
-            if (!field.isAccessible()) {
-                field.setAccessible(true);
+        for (final Map.Entry<Class<?>, List<Object>> entry : byClass.entrySet()) {
+            ClassMetadata metadata = getMetadata(entry.getKey());
+            List<Object> group = entry.getValue();
+            countInjections(metadata, group.size());
+            if (group.size() > 1 && !metadata.isBound() && metadata.getEngine() != InjectionEngine.AUTOWIRE) {
+                // resolve the values shared by the objects of the class once for the whole group
+                metadata = metadata.copy(this::bindConstant, new IdentityHashMap<>());
+            }
+            for (final Object object : group) {
+                apply(object, metadata);
+            }
+        }
+    }
+
+    /**
+     * Injects the object using the injection metadata of its class
+     *
+     * @param object   object to inject
+     * @param metadata injection metadata of the object class
+     */
+    private void inject(final Object object, final ClassMetadata metadata) {
+        countInjections(metadata, 1);
+        apply(object, metadata);
+    }
+
+    /**
+     * Counts injections of the class, promoting the class once the threshold is reached
+     *
+     * @param metadata injection metadata of the class
+     * @param count    number of injected objects
+     */
+    private void countInjections(final ClassMetadata metadata, final int count) {
+        if (metadata.recordInjections(count, promotionThreshold)) {
+            schedulePromotion(metadata);
+        }
+    }
+
+    /**
+     * Sets the fields of the object by the injection metadata, or autowires the object
+     *
+     * @param object   object to inject
+     * @param metadata injection metadata of the object class
+     */
+    private void apply(final Object object, final ClassMetadata metadata) {
+        if (metadata.getEngine() == InjectionEngine.AUTOWIRE) {
+            applicationContext.getAutowireCapableBeanFactory().autowireBean(object);
+            return;
+        }
+
+        try {
+            metadata.inject(object);
+        } catch (IllegalArgumentException | IllegalAccessException e) {
+            throw new RuntimeException("error while injecting object [" + object.toString() + "] of type [" + object.getClass().getName() + "]", e);
+        }
+    }
+
+    /**
+     * Returns the injection metadata of the class with the values shared by its instances bound,
+     * valid as long as the {@link #getMetadataGeneration() generation} of the metadata does not change
+     *
+     * @param clazz class
+     * @return bound metadata
+     */
+    ClassMetadata getBoundMetadata(final Class<?> clazz) {
+        ClassMetadata metadata = getMetadata(clazz);
+        if (metadata.isBound() || metadata.getEngine() == InjectionEngine.AUTOWIRE) {
+            return metadata;
+        }
+        return metadata.copy(this::bindConstant, new IdentityHashMap<>());
+    }
+
+    /**
+     * @return generation of the metadata, changes whenever the metadata are discarded
+     */
+    int getMetadataGeneration() {
+        return metadataGeneration;
+    }
+
+    /**
+     * Injects the object using metadata returned by {@link #getBoundMetadata(Class)}
+     *
+     * @param object   object to inject
+     * @param metadata bound injection metadata of the object class
+     */
+    void injectBound(final Object object, final ClassMetadata metadata) {
+        apply(object, metadata);
+    }
+
+    boolean isPlaceholder() {
+        return isPlaceholder;
+    }
+
+    /**
+     * Tells whether injecting instances of the class has any effect, i.e. whether the class or its
+     * superclasses declare injectable fields or the class is autowired. The placeholder answers
+     * from its own metadata until the injector bean is created, discovering fields does not need the
+     * application context.
+     *
+     * @param clazz class
+     * @return true if instances of the class are to be injected
+     */
+    boolean isInjectable(final Class<?> clazz) {
+        if (isPlaceholder) {
+            SpringInjector injector = instance;
+            if (injector != null) {
+                return injector.isInjectable(clazz);
             }
+        }
+        ClassMetadata metadata = getMetadata(clazz);
+        return metadata.getEngine() == InjectionEngine.AUTOWIRE || !metadata.isEmpty();
+    }
+
+    /**
+     * Injects the specified object asynchronously, using the executor of the injector.
+     *
+     * @param object object to inject
+     * @param <T>    type of the object
+     * @return future completed with the injected object
+     * @see #setExecutor(Executor)
+     */
+    public <T> CompletableFuture<T> injectAsync(final T object) {
+        return CompletableFuture.supplyAsync(() -> {
+            inject(object);
+            return object;
+        }, executor);
+    }
+
+    /**
+     * Locates targets of all lazy init proxies injected into the object at the same time, using the
+     * executor of the injector, so that the first invocations on the proxies do not have to locate
+     * them one after another. Proxies of scoped beans are skipped, their targets are bound to the
+     * scope of the invoking thread.
+     *
+     * @param object injected object
+     * @return future completed when all the targets are located
+     * @see #setExecutor(Executor)
+     */
+    public CompletableFuture<Void> resolveAll(final Object object) {
+        Set<Object> proxies = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (final FieldBinding binding : getMetadata(object.getClass()).getBindings()) {
+            Object value;
             try {
-                if (field.get(object) == null) {
-                    Object value = factory.getFieldValue(field);
+                value = binding.getField().get(object);
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException("error while resolving object [" + object.toString() + "] of type [" + object.getClass().getName() + "]", e);
+            }
+            if (value instanceof ILazyInitProxy && ((ILazyInitProxy) value).getObjectLocator().isTargetCacheable()) {
+                proxies.add(value);
+            }
+        }
 
-                    if (value != null) {
-                        field.set(object, value);
-                    }
-                }
-            } catch (IllegalArgumentException | IllegalAccessException e) {
-                throw new RuntimeException("error while injecting object [" + object.toString() + "] of type [" + object.getClass().getName() + "]", e);
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[proxies.size()];
+        int i = 0;
+        for (final Object proxy : proxies) {
+            futures[i++] = CompletableFuture.runAsync(() -> LazyInitProxyFactory.initializeTarget(proxy), executor);
+        }
+        return CompletableFuture.allOf(futures);
+    }
+
+    /**
+     * Sets the executor used by {@link #injectAsync(Object)} and {@link #resolveAll(Object)}. By
+     * default virtual threads are used if available, otherwise a cached pool of daemon threads.
+     *
+     * @param executor executor
+     */
+    public void setExecutor(final Executor executor) {
+        Assert.notNull(executor, "Argument executor can not be null.");
+        this.executor = executor;
+    }
+
+    /**
+     * @return executor used by {@link #injectAsync(Object)} and {@link #resolveAll(Object)}
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Returns injection metadata of the class, discovering them on cache miss
+     *
+     * @param clazz
+     * @return injection metadata
+     */
+    private ClassMetadata getMetadata(final Class<?> clazz) {
+        ClassMetadata metadata;
+
+        // try the frozen table, then the mutable cache
+        FrozenMetadata frozen = this.frozen;
+        if (frozen != null) {
+            metadata = frozen.get(clazz);
+            if (metadata != null) {
+                return metadata;
             }
         }
+
+        // try cache
+        metadata = cache.get(clazz);
+        if (metadata == null) {
+            // cache miss, discover fields once for all threads missing concurrently
+            metadata = metadataFlights.execute(clazz, () -> {
+                ClassMetadata discovered = cache.get(clazz);
+                if (discovered == null) {
+                    discovered = createMetadata(clazz);
+                    // write to cache, unless discarded meanwhile
+                    cacheMetadata(discovered);
+                }
+                return discovered;
+            });
+        }
+        return metadata;
+    }
+
+    /**
+     * Creates injection metadata of the class from the cached metadata of its superclass and the
+     * fields the class declares
+     *
+     * @param clazz
+     * @return injection metadata
+     */
+    private ClassMetadata createMetadata(final Class<?> clazz) {
+        // read first, the engine and the factory chain may change during the discovery
+        int generation = metadataGeneration;
+        InjectWith injectWith = clazz.getAnnotation(InjectWith.class);
+        InjectionEngine engine = injectWith != null ? injectWith.value() : defaultEngine;
+
+        Class<?> superclass = clazz.getSuperclass();
+        ClassMetadata parent = superclass != null && superclass != Object.class ? getMetadata(superclass) : null;
+
+        return new ClassMetadata(clazz, engine, findFields(clazz, fieldValueFactory), parent, generation);
     }
 
     /**
-     * Returns an array of fields that can be injected using the given field value factory
+     * Returns an array of fields declared by the class that can be injected using the given field
+     * value factory, each bound to the factory of the chain that supports it
      *
      * @param clazz
      * @param factory
-     * @return an array of fields that can be injected using the given field value factory
+     * @return an array of field bindings
      */
-    private Field[] findFields(Class<?> clazz, final IFieldValueFactory factory) {
-        List<Field> matched = new ArrayList<>();
+    private FieldBinding[] findFields(final Class<?> clazz, final CompositeFieldValueFactory factory) {
+        List<FieldBinding> matched = new ArrayList<>();
 
-        while (clazz != null) {
-            Field[] fields = clazz.getDeclaredFields();
-            for (final Field field : fields) {
-                if (factory.supportsField(field)) {
-                    matched.add(field);
-                }
+        Field[] fields = clazz.getDeclaredFields();
+        for (final Field field : fields) {
+            IFieldValueFactory fieldFactory = factory.getFactory(field);
+            if (fieldFactory != null) {
+                matched.add(new FieldBinding(field, fieldFactory));
             }
-            clazz = clazz.getSuperclass();
         }
 
-        return matched.toArray(new Field[matched.size()]);
+        return matched.toArray(new FieldBinding[matched.size()]);
+    }
+
+    /**
+     * @return executor running each task in a new virtual thread if the JVM supports them,
+     * otherwise a cached pool of daemon threads
+     */
+    private static Executor createDefaultExecutor() {
+        try {
+            return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            // virtual threads are not available
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "spring-injector-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     ApplicationContext getApplicationContext() {
         return applicationContext;
     }
 
-    private static class ContextLocator implements ISpringContextLocator {
+    static class ContextLocator implements ISpringContextLocator {
         private static final long serialVersionUID = 1L;
 
         @Override
@@ -0,0 +1,133 @@
+package com.github.sabomichal.springinjector;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.beans.factory.config.BeanExpressionContext;
+import org.springframework.beans.factory.config.BeanExpressionResolver;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Field;
+
+/**
+ * This class is usually used by the {@link SpringInjector} to inject fields annotated with
+ * {@link Value}. The expression is resolved the same way spring does for its beans: placeholders are
+ * resolved first, then the SpEL expression is evaluated and the result is converted to the field
+ * type using the type converter (and its conversion service) of the bean factory.
+ * <p>
+ * Values are resolved once per field and cached until {@link #clearCache()} is called, which
+ * {@link SpringInjector} does when the application context is refreshed. Only values of immutable
+ * types (primitives and their wrappers, strings and enums) are shared by the injected objects; for
+ * other types, e.g. arrays or collections, the resolved expression is cached and converted on every
+ * injection, so that each object gets a value of its own, as spring beans do.
+ *
+ * @author Michal Sabo
+ * @see Value
+ */
+public class ValueFieldValueFactory implements IFieldValueFactory {
+
+    private final ICache<Field, Object> cache = Caches.create(Caches.VALUES);
+
+    private final ISpringContextLocator springContextLocator;
+
+    ValueFieldValueFactory(ISpringContextLocator springContextLocator) {
+        this.springContextLocator = springContextLocator;
+    }
+
+    @Override
+    public Object getFieldValue(final Field field) {
+        boolean immutable = isImmutable(field.getType());
+        Object value = cache.get(field);
+        if (value == null) {
+            ConfigurableBeanFactory beanFactory = getBeanFactory();
+            value = resolveValue(beanFactory, field);
+            if (immutable) {
+                value = convertValue(beanFactory, field, value);
+            }
+
+            // null values are not cached, they are resolved again on next injection
+            if (value != null) {
+                Object tmpValue = cache.putIfAbsent(field, value);
+                if (tmpValue != null) {
+                    value = tmpValue;
+                }
+            }
+        }
+        return immutable ? value : convertValue(getBeanFactory(), field, value);
+    }
+
+    /**
+     * Returns the value shared by all objects the field is injected into
+     *
+     * @param field field
+     * @return value of the field, or {@code null} if every object gets a value of its own
+     */
+    Object getSharedFieldValue(final Field field) {
+        return isImmutable(field.getType()) ? getFieldValue(field) : null;
+    }
+
+    /**
+     * @param type type of the field
+     * @return true if values of the type can be shared by the injected objects
+     */
+    private static boolean isImmutable(final Class<?> type) {
+        return type.isPrimitive() || ClassUtils.isPrimitiveWrapper(type) || type == String.class || type.isEnum();
+    }
+
+    /**
+     * Resolves placeholders and SpEL expression of the {@link Value} annotation.
+     *
+     * @param beanFactory bean factory
+     * @param field       field being injected
+     * @return resolved value, not converted yet
+     */
+    private static Object resolveValue(final ConfigurableBeanFactory beanFactory, final Field field) {
+        String expression = field.getAnnotation(Value.class).value();
+
+        Object value = beanFactory.resolveEmbeddedValue(expression);
+
+        BeanExpressionResolver expressionResolver = beanFactory.getBeanExpressionResolver();
+        if (expressionResolver != null) {
+            value = expressionResolver.evaluate((String) value, new BeanExpressionContext(beanFactory, null));
+        }
+        return value;
+    }
+
+    /**
+     * Converts the resolved value to the type of the field
+     *
+     * @param beanFactory bean factory
+     * @param field       field being injected
+     * @param value       resolved value
+     * @return converted value
+     */
+    private static Object convertValue(final ConfigurableBeanFactory beanFactory, final Field field,
+                                       final Object value) {
+        return beanFactory.getTypeConverter().convertIfNecessary(value, field.getType(), field);
+    }
+
+    /**
+     * Discards all resolved values
+     */
+    public void clearCache() {
+        cache.clear();
+    }
+
+    @Override
+    public boolean supportsField(final Field field) {
+        return field.isAnnotationPresent(Value.class);
+    }
+
+    private ConfigurableBeanFactory getBeanFactory() {
+        final ApplicationContext context = springContextLocator.getSpringContext();
+        if (context == null) {
+            throw new IllegalStateException("spring application context locator returned null");
+        }
+        AutowireCapableBeanFactory beanFactory = context.getAutowireCapableBeanFactory();
+        if (!(beanFactory instanceof ConfigurableBeanFactory)) {
+            throw new IllegalStateException("@Value injection requires a ConfigurableBeanFactory, found [" + beanFactory.getClass().getName() + "]");
+        }
+        return (ConfigurableBeanFactory) beanFactory;
+    }
+}
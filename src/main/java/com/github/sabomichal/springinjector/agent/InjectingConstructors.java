@@ -0,0 +1,17 @@
+package com.github.sabomichal.springinjector.agent;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks the classes whose constructors have been transformed by {@link InjectingTransformer}, added
+ * by the transformer itself. Not meant to be used in the source code.
+ *
+ * @author Michal Sabo
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface InjectingConstructors {
+}
@@ -0,0 +1,202 @@
+package com.github.sabomichal.springinjector.agent;
+
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.commons.AdviceAdapter;
+
+import java.lang.instrument.ClassFileTransformer;
+import java.security.ProtectionDomain;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Class file transformer adding a call of {@link InjectorHook#inject(Object, Class)} before every
+ * normal return of the constructors of classes of the selected packages. Transformed are classes
+ * declaring fields annotated by {@code @Inject}, {@code @Autowired}, {@code @Resource} or
+ * {@code @Value}, and classes extending another class of the selected packages, which may declare
+ * such fields. Constructors delegating to another constructor of the same class are left as they
+ * are. Transformed classes are marked by {@link InjectingConstructors}. The hook checks the class
+ * of the object, so that only the constructor of the most derived transformed class injects; the
+ * bindings of the class are then looked up in the metadata cache of the
+ * injector, as with a call of {@code inject(this)}.
+ * <p>
+ * Constructors are rewritten by an {@link AdviceAdapter}, which renumbers local variables and
+ * therefore requires the class to be read with expanded stack map frames. The transformation adds
+ * no branches, so the existing frames stay valid and are written back compressed, they are not
+ * recomputed and no other class is loaded to compute them.
+ * <p>
+ * Classes that fail to transform are reported on the standard error stream and loaded as they
+ * are, their objects are then not injected at construction.
+ *
+ * @author Michal Sabo
+ */
+public class InjectingTransformer implements ClassFileTransformer {
+
+    private static final Set<String> INJECT_ANNOTATIONS = new HashSet<>(Arrays.asList(
+            "Ljavax/inject/Inject;",
+            "Lorg/springframework/beans/factory/annotation/Autowired;",
+            "Lorg/springframework/beans/factory/annotation/Value;",
+            "Ljavax/annotation/Resource;"));
+
+    private static final String HOOK = Type.getInternalName(InjectorHook.class);
+    private static final String HOOK_DESCRIPTOR = "(Ljava/lang/Object;Ljava/lang/Class;)V";
+    private static final String MARKER = Type.getDescriptor(InjectingConstructors.class);
+
+    private final String[] packagePrefixes;
+
+    /**
+     * Constructor
+     *
+     * @param packages packages of the classes to transform, including their subpackages
+     */
+    public InjectingTransformer(final String... packages) {
+        packagePrefixes = new String[packages.length];
+        for (int i = 0; i < packages.length; i++) {
+            packagePrefixes[i] = packages[i].replace('.', '/') + "/";
+        }
+    }
+
+    @Override
+    public byte[] transform(final ClassLoader loader, final String className, final Class<?> classBeingRedefined,
+                            final ProtectionDomain protectionDomain, final byte[] classfileBuffer) {
+        if (className == null || classBeingRedefined != null || !isSelected(className) || className.contains("$$")) {
+            return null;
+        }
+        try {
+            return transform(classfileBuffer);
+        } catch (Throwable e) {
+            // the JVM ignores exceptions thrown by transformers, the class would stay uninjected silently
+            System.err.println("WARNING: class " + className.replace('/', '.') + " could not be transformed, "
+                    + "its objects are not injected at construction");
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Transforms the class
+     *
+     * @param classfileBuffer class file
+     * @return transformed class file, or {@code null} if the class is not to be injected
+     */
+    public byte[] transform(final byte[] classfileBuffer) {
+        ClassReader reader = new ClassReader(classfileBuffer);
+        ClassWriter writer = new ClassWriter(reader, ClassWriter.COMPUTE_MAXS);
+        InjectingClassVisitor visitor = new InjectingClassVisitor(writer);
+        reader.accept(visitor, ClassReader.EXPAND_FRAMES);
+        return visitor.transformed ? writer.toByteArray() : null;
+    }
+
+    private boolean isSelected(final String internalName) {
+        for (String prefix : packagePrefixes) {
+            if (internalName.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private final class InjectingClassVisitor extends ClassVisitor {
+        private String className;
+        private boolean candidate;
+        private boolean injectable;
+        private boolean transformed;
+
+        InjectingClassVisitor(final ClassVisitor classVisitor) {
+            super(Opcodes.ASM9, classVisitor);
+        }
+
+        @Override
+        public void visit(final int version, final int access, final String name, final String signature,
+                          final String superName, final String[] interfaces) {
+            super.visit(version, access, name, signature, superName, interfaces);
+            className = name;
+            candidate = (access & (Opcodes.ACC_INTERFACE | Opcodes.ACC_ENUM)) == 0;
+            // fields declared by a superclass of the selected packages are not known here
+            injectable = superName != null && isSelected(superName);
+        }
+
+        @Override
+        public FieldVisitor visitField(final int access, final String name, final String descriptor,
+                                       final String signature, final Object value) {
+            FieldVisitor fieldVisitor = super.visitField(access, name, descriptor, signature, value);
+            if (!candidate || injectable || (access & Opcodes.ACC_STATIC) != 0) {
+                return fieldVisitor;
+            }
+            return new FieldVisitor(Opcodes.ASM9, fieldVisitor) {
+                @Override
+                public AnnotationVisitor visitAnnotation(final String annotationDescriptor, final boolean visible) {
+                    if (INJECT_ANNOTATIONS.contains(annotationDescriptor)) {
+                        injectable = true;
+                    }
+                    return super.visitAnnotation(annotationDescriptor, visible);
+                }
+            };
+        }
+
+        @Override
+        public MethodVisitor visitMethod(final int access, final String name, final String descriptor,
+                                         final String signature, final String[] exceptions) {
+            MethodVisitor methodVisitor = super.visitMethod(access, name, descriptor, signature, exceptions);
+            // fields precede methods in the class file, injectable is known by now
+            if (!candidate || !injectable || !"<init>".equals(name)) {
+                return methodVisitor;
+            }
+            transformed = true;
+            return new InjectingConstructorVisitor(methodVisitor, access, name, descriptor, className);
+        }
+
+        @Override
+        public void visitEnd() {
+            if (transformed) {
+                // the writer keeps the annotations apart from the members, they may come last
+                AnnotationVisitor annotationVisitor = super.visitAnnotation(MARKER, true);
+                if (annotationVisitor != null) {
+                    annotationVisitor.visitEnd();
+                }
+            }
+            super.visitEnd();
+        }
+    }
+
+    private static final class InjectingConstructorVisitor extends AdviceAdapter {
+        private final String className;
+        private String lastConstructorOwner;
+        private boolean delegating;
+
+        InjectingConstructorVisitor(final MethodVisitor methodVisitor, final int access, final String name,
+                                    final String descriptor, final String className) {
+            super(Opcodes.ASM9, methodVisitor, access, name, descriptor);
+            this.className = className;
+        }
+
+        @Override
+        public void visitMethodInsn(final int opcode, final String owner, final String name, final String descriptor,
+                                    final boolean isInterface) {
+            lastConstructorOwner = opcode == INVOKESPECIAL && "<init>".equals(name) ? owner : null;
+            super.visitMethodInsn(opcode, owner, name, descriptor, isInterface);
+        }
+
+        @Override
+        protected void onMethodEnter() {
+            // called right after this(...) or super(...)
+            delegating = className.equals(lastConstructorOwner);
+        }
+
+        @Override
+        protected void onMethodExit(final int opcode) {
+            if (opcode == RETURN && !delegating) {
+                loadThis();
+                visitLdcInsn(Type.getObjectType(className));
+                visitMethodInsn(INVOKESTATIC, HOOK, "inject", HOOK_DESCRIPTOR, false);
+            }
+        }
+    }
+}
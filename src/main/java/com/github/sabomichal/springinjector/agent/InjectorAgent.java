@@ -0,0 +1,50 @@
+package com.github.sabomichal.springinjector.agent;
+
+import java.lang.instrument.Instrumentation;
+
+/**
+ * Java agent injecting objects of the selected packages at construction, so that their
+ * constructors do not have to call {@code SpringInjector.get().inject(this)}. The packages are
+ * given as a comma separated list of agent arguments:
+ * <pre>
+ * java -javaagent:spring-injector.jar=com.example.domain,com.example.web ...
+ * </pre>
+ * The agent requires {@code org.ow2.asm:asm-commons} on the class path.
+ *
+ * @author Michal Sabo
+ * @see InjectingTransformer
+ */
+public final class InjectorAgent {
+
+    private InjectorAgent() {
+    }
+
+    /**
+     * Registers the transformer when the agent is given on the command line
+     *
+     * @param args            comma separated packages
+     * @param instrumentation instrumentation
+     */
+    public static void premain(final String args, final Instrumentation instrumentation) {
+        instrumentation.addTransformer(new InjectingTransformer(parsePackages(args)));
+    }
+
+    /**
+     * Registers the transformer when the agent is attached to a running JVM. Only classes loaded
+     * afterwards are transformed.
+     *
+     * @param args            comma separated packages
+     * @param instrumentation instrumentation
+     */
+    public static void agentmain(final String args, final Instrumentation instrumentation) {
+        premain(args, instrumentation);
+    }
+
+    private static String[] parsePackages(final String args) {
+        if (args == null || args.trim().isEmpty()) {
+            throw new IllegalArgumentException("Packages of the classes to inject must be given, "
+                    + "e.g. -javaagent:spring-injector.jar=com.example");
+        }
+        return args.split("\\s*,\\s*");
+    }
+}
@@ -0,0 +1,51 @@
+package com.github.sabomichal.springinjector.agent;
+
+import com.github.sabomichal.springinjector.SpringInjector;
+
+/**
+ * Entry point of the constructors transformed by {@link InjectingTransformer}
+ *
+ * @author Michal Sabo
+ */
+public final class InjectorHook {
+
+    /**
+     * The most derived transformed class of the class hierarchy, whose constructor injects
+     */
+    private static final ClassValue<Class<?>> INJECTING_CLASS = new ClassValue<Class<?>>() {
+        @Override
+        protected Class<?> computeValue(final Class<?> type) {
+            for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+                if (c.isAnnotationPresent(InjectingConstructors.class)) {
+                    return c;
+                }
+            }
+            return null;
+        }
+    };
+
+    private InjectorHook() {
+    }
+
+    /**
+     * Injects the object once its most derived transformed class has been constructed, so that the
+     * object is injected once. Usually this is the class of the object itself, so the object is
+     * injected fully constructed. Objects of classes that have not been transformed, e.g. subclasses
+     * outside of the agent packages or classes generated at runtime, are injected by the constructor
+     * of their nearest transformed superclass, before the constructors of the subclasses run. Like
+     * {@code @Configurable}, objects created before the injector exists are not injected, unless the
+     * {@link SpringInjector#enableBootstrapMode() bootstrap mode} is on.
+     *
+     * @param object       object being constructed
+     * @param constructing class declaring the constructor that has finished
+     */
+    public static void inject(final Object object, final Class<?> constructing) {
+        Class<?> type = object.getClass();
+        if (type == constructing || INJECTING_CLASS.get(type) == constructing) {
+            SpringInjector injector = SpringInjector.get();
+            if (injector != null) {
+                injector.inject(object);
+            }
+        }
+    }
+}
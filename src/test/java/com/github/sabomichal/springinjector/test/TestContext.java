@@ -1,13 +1,40 @@
 package com.github.sabomichal.springinjector.test;
 
 import com.github.sabomichal.springinjector.SpringInjector;
+import org.springframework.beans.factory.config.CustomScopeConfigurer;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.context.support.SimpleThreadScope;
+
+import java.util.function.Supplier;
 
 /**
  * @author Michal Sabo
  */
 @Configuration
-@ComponentScan(basePackageClasses = SpringInjector.class)
+@ComponentScan(basePackageClasses = SpringInjector.class, excludeFilters = {
+		@ComponentScan.Filter(type = FilterType.ANNOTATION, classes = SpringBootConfiguration.class)})
+@PropertySource("classpath:test.properties")
 public class TestContext {
+
+	@Bean
+	public static CustomScopeConfigurer threadScopeConfigurer() {
+		CustomScopeConfigurer configurer = new CustomScopeConfigurer();
+		configurer.addScope("thread", new SimpleThreadScope());
+		return configurer;
+	}
+
+	@Bean
+	public Supplier<String> greeting() {
+		return () -> "hello";
+	}
+
+	@Bean
+	public Supplier<String> farewell() {
+		return () -> "bye";
+	}
 }
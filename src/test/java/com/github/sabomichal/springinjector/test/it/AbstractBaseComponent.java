@@ -0,0 +1,23 @@
+package com.github.sabomichal.springinjector.test.it;
+
+import com.github.sabomichal.springinjector.SpringInjector;
+
+import javax.inject.Inject;
+
+/**
+ * @author Michal Sabo
+ *
+ */
+public abstract class AbstractBaseComponent {
+
+	@Inject
+	private InjectedComponent baseComponent;
+
+	protected AbstractBaseComponent() {
+		SpringInjector.get().inject(this);
+	}
+
+	public InjectedComponent getBaseComponent() {
+		return baseComponent;
+	}
+}
@@ -0,0 +1,69 @@
+package com.github.sabomichal.springinjector.test.it;
+
+import javax.inject.Inject;
+
+/**
+ * Injected by the agent, without calling the injector
+ *
+ * @author Michal Sabo
+ *
+ */
+public class AgentComponent {
+
+	@Inject
+	private InjectedComponent injectedComponent;
+
+	private final int offset;
+
+	public AgentComponent() {
+		this(0);
+	}
+
+	public AgentComponent(int offset) {
+		this.offset = offset;
+	}
+
+	public int answer() {
+		return injectedComponent.answer() + offset;
+	}
+
+	public static class SubAgentComponent extends AgentComponent {
+		public SubAgentComponent() {
+			super(1);
+		}
+	}
+
+	/**
+	 * Not transformed, like a subclass outside of the agent packages
+	 */
+	public static class UntransformedSubAgentComponent extends AgentComponent {
+		public UntransformedSubAgentComponent() {
+			super(2);
+		}
+	}
+
+	/**
+	 * Branches in the constructor, so that its class file has stack map frames
+	 */
+	public static class BranchingAgentComponent extends AgentComponent {
+		private int extra;
+
+		public BranchingAgentComponent() {
+			this(-3);
+		}
+
+		public BranchingAgentComponent(int extra) {
+			super(0);
+			if (extra > 0) {
+				this.extra = extra;
+			} else {
+				this.extra = -extra;
+			}
+		}
+
+		@Override
+		public int answer() {
+			return super.answer() + extra;
+		}
+	}
+}
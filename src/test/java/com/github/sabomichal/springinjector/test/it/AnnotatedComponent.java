@@ -0,0 +1,61 @@
+package com.github.sabomichal.springinjector.test.it;
+
+import com.github.sabomichal.springinjector.SpringInjector;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+
+import javax.annotation.Resource;
+import java.util.function.Supplier;
+
+/**
+ * @author Michal Sabo
+ *
+ */
+public class AnnotatedComponent {
+
+	@Autowired
+	private InjectedComponent autowiredComponent;
+
+	@Autowired
+	@Qualifier("injectedComponent")
+	private InjectedComponent qualifiedComponent;
+
+	@Resource
+	private InjectedComponent resourceComponent;
+
+	@Resource
+	private Supplier<String> farewell;
+
+	@Autowired(required = false)
+	private Unregistered optionalComponent;
+
+	public AnnotatedComponent() {
+		SpringInjector.get().inject(this);
+	}
+
+	public InjectedComponent getAutowiredComponent() {
+		return autowiredComponent;
+	}
+
+	public InjectedComponent getQualifiedComponent() {
+		return qualifiedComponent;
+	}
+
+	public InjectedComponent getResourceComponent() {
+		return resourceComponent;
+	}
+
+	public Supplier<String> getFarewell() {
+		return farewell;
+	}
+
+	public Unregistered getOptionalComponent() {
+		return optionalComponent;
+	}
+
+	/**
+	 * Type without any bean in the context
+	 */
+	public interface Unregistered {
+	}
+}
@@ -0,0 +1,10 @@
+package com.github.sabomichal.springinjector.test.it;
+
+/**
+ * @author Michal Sabo
+ *
+ */
+public interface AnswerProvider {
+
+	int answer();
+}
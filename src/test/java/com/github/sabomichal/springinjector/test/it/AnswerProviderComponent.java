@@ -0,0 +1,16 @@
+package com.github.sabomichal.springinjector.test.it;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * @author Michal Sabo
+ *
+ */
+@Component
+public class AnswerProviderComponent implements AnswerProvider {
+
+	@Override
+	public int answer() {
+		return 42;
+	}
+}
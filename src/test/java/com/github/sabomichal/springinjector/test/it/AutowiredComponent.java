@@ -0,0 +1,26 @@
+package com.github.sabomichal.springinjector.test.it;
+
+import com.github.sabomichal.springinjector.InjectWith;
+import com.github.sabomichal.springinjector.InjectionEngine;
+import com.github.sabomichal.springinjector.SpringInjector;
+
+import javax.inject.Inject;
+
+/**
+ * @author Michal Sabo
+ *
+ */
+@InjectWith(InjectionEngine.AUTOWIRE)
+public class AutowiredComponent {
+
+	@Inject
+	private InjectedComponent injectedComponent;
+
+	public AutowiredComponent() {
+		SpringInjector.get().inject(this);
+	}
+
+	public InjectedComponent getInjectedComponent() {
+		return injectedComponent;
+	}
+}
@@ -0,0 +1,37 @@
+package com.github.sabomichal.springinjector.test.it;
+
+import com.github.sabomichal.springinjector.SpringInjector;
+
+import javax.inject.Inject;
+
+/**
+ * @author Michal Sabo
+ *
+ */
+public class ConcurrentDependentComponent {
+
+	@Inject
+	private LazySingletonComponent lazySingletonComponent;
+
+	@Inject
+	private InjectedComponent injectedComponent;
+
+	@Inject
+	private PrototypeComponent prototypeComponent;
+
+	public ConcurrentDependentComponent() {
+		SpringInjector.get().inject(this);
+	}
+
+	public LazySingletonComponent getLazySingletonComponent() {
+		return lazySingletonComponent;
+	}
+
+	public InjectedComponent getInjectedComponent() {
+		return injectedComponent;
+	}
+
+	public PrototypeComponent getPrototypeComponent() {
+		return prototypeComponent;
+	}
+}
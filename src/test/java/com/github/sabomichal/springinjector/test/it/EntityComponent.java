@@ -0,0 +1,41 @@
+package com.github.sabomichal.springinjector.test.it;
+
+import javax.inject.Inject;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Transient;
+
+/**
+ * Injected by the Hibernate integrator when loaded, so it does not inject itself
+ *
+ * @author Michal Sabo
+ *
+ */
+@Entity
+public class EntityComponent {
+
+	@Id
+	private Long id;
+
+	private String name;
+
+	@Inject
+	@Transient
+	private InjectedComponent injectedComponent;
+
+	public EntityComponent() {
+	}
+
+	public EntityComponent(Long id, String name) {
+		this.id = id;
+		this.name = name;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public InjectedComponent getInjectedComponent() {
+		return injectedComponent;
+	}
+}
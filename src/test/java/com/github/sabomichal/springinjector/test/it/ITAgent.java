@@ -0,0 +1,94 @@
+package com.github.sabomichal.springinjector.test.it;
+
+import com.github.sabomichal.springinjector.agent.InjectingTransformer;
+import com.github.sabomichal.springinjector.test.TestContext;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.support.AnnotationConfigContextLoader;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Loads classes transformed by the agent transformer and checks that they are injected at
+ * construction.
+ *
+ * @author Michal Sabo
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes={TestContext.class}, loader=AnnotationConfigContextLoader.class)
+public class ITAgent {
+
+    private final InjectingTransformer transformer = new InjectingTransformer("com.github.sabomichal.springinjector.test.it");
+
+    @Test
+    public void testInjectionAtConstruction() throws Exception {
+        ClassLoader loader = new TransformingClassLoader();
+
+        Object component = loader.loadClass(AgentComponent.class.getName()).getDeclaredConstructor().newInstance();
+        Assert.assertEquals(42, component.getClass().getMethod("answer").invoke(component));
+
+        Object subComponent = loader.loadClass(AgentComponent.SubAgentComponent.class.getName())
+                .getDeclaredConstructor().newInstance();
+        Assert.assertEquals(43, subComponent.getClass().getMethod("answer").invoke(subComponent));
+
+        // injected by the constructor of the transformed superclass
+        Object untransformed = loader.loadClass(AgentComponent.UntransformedSubAgentComponent.class.getName())
+                .getDeclaredConstructor().newInstance();
+        Assert.assertEquals(44, untransformed.getClass().getMethod("answer").invoke(untransformed));
+
+        Object branching = loader.loadClass(AgentComponent.BranchingAgentComponent.class.getName())
+                .getDeclaredConstructor().newInstance();
+        Assert.assertEquals(45, branching.getClass().getMethod("answer").invoke(branching));
+    }
+
+    @Test
+    public void testClassesWithoutInjectableFields() throws Exception {
+        Assert.assertNull(transformer.transform(readClass(InjectedComponent.class.getName())));
+        Assert.assertNotNull(transformer.transform(readClass(AgentComponent.class.getName())));
+    }
+
+    private static byte[] readClass(final String name) throws IOException {
+        try (InputStream in = ITAgent.class.getClassLoader().getResourceAsStream(name.replace('.', '/') + ".class")) {
+            return StreamUtils.copyToByteArray(in);
+        }
+    }
+
+    /**
+     * Defines the agent components from transformed class files, except for the untransformed one,
+     * delegates other classes to the parent
+     */
+    private class TransformingClassLoader extends ClassLoader {
+        TransformingClassLoader() {
+            super(ITAgent.class.getClassLoader());
+        }
+
+        @Override
+        protected Class<?> loadClass(final String name, final boolean resolve) throws ClassNotFoundException {
+            if (!name.startsWith(AgentComponent.class.getName())) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> clazz = findLoadedClass(name);
+                if (clazz == null) {
+                    try {
+                        byte[] bytes = readClass(name);
+                        byte[] transformed = bytes;
+                        if (!name.equals(AgentComponent.UntransformedSubAgentComponent.class.getName())) {
+                            transformed = transformer.transform(bytes);
+                            Assert.assertNotNull(transformed);
+                        }
+                        clazz = defineClass(name, transformed, 0, transformed.length);
+                    } catch (IOException e) {
+                        throw new ClassNotFoundException(name, e);
+                    }
+                }
+                return clazz;
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.github.sabomichal.springinjector.test.it;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.sabomichal.springinjector.JacksonInjectionModule;
+import com.github.sabomichal.springinjector.SpringInjector;
+import com.github.sabomichal.springinjector.test.TestContext;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Injects objects created before the application context exists, in bootstrap mode.
+ *
+ * @author Michal Sabo
+ */
+public class ITBootstrap {
+
+    @Test
+    public void testDeferredInjection() throws Exception {
+        Assert.assertNull(SpringInjector.get());
+        // without the injector and the bootstrap mode, deserialized objects are left uninjected
+        ObjectMapper mapper = new ObjectMapper().registerModule(new JacksonInjectionModule());
+        Assert.assertNull(mapper.readValue("{\"name\":\"a\"}", JsonComponent.class).getInjectedComponent());
+        Assert.assertNull(mapper.readValue("[{\"name\":\"a\"}]", JsonComponent[].class)[0].getInjectedComponent());
+
+        SpringInjector.enableBootstrapMode();
+
+        List<DependentComponent> components = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            components.add(new DependentComponent());
+        }
+
+        // the placeholder tells injectable classes apart and queues batches without the injector bean
+        JsonComponent[] json = mapper.readValue("[{\"name\":\"a\"},{\"name\":\"b\"}]", JsonComponent[].class);
+        Assert.assertNull(json[0].getInjectedComponent());
+
+        try (AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(TestContext.class,
+                EarlyBatch.class)) {
+            Assert.assertSame(ctx.getBean(SpringInjector.class), SpringInjector.get());
+            for (DependentComponent component : components) {
+                Assert.assertEquals(42, component.answer());
+            }
+            for (JsonComponent component : json) {
+                Assert.assertEquals(42, component.getInjectedComponent().answer());
+            }
+            // the batch injected while the context was refreshing has been queued as well
+            Assert.assertFalse(EarlyBatch.injectedEarly);
+            Assert.assertEquals(42, EarlyBatch.BATCH.get(0).getInjectedComponent().answer());
+            // once refreshed, objects are injected right away
+            Assert.assertEquals(42, new DependentComponent().answer());
+        }
+    }
+
+    /**
+     * Bean injecting a batch once the injector bean exists, but before the context is refreshed
+     */
+    public static class EarlyBatch {
+        static final List<JsonComponent> BATCH = Collections.singletonList(new JsonComponent());
+        static boolean injectedEarly;
+
+        @Inject
+        public EarlyBatch(final SpringInjector injector) {
+            injector.injectAll(BATCH);
+            injectedEarly = BATCH.get(0).getInjectedComponent() != null;
+        }
+    }
+}
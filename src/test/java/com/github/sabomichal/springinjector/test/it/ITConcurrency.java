@@ -0,0 +1,298 @@
+package com.github.sabomichal.springinjector.test.it;
+
+import com.github.sabomichal.springinjector.IFieldValueFactory;
+import com.github.sabomichal.springinjector.SpringInjector;
+import com.github.sabomichal.springinjector.test.TestContext;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.support.AnnotationConfigContextLoader;
+
+import javax.inject.Inject;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Injects and invokes proxies from an increasing number of threads, from one up to all available
+ * cores, checking that no injection is lost and that every singleton has exactly one target. The
+ * throughput of each step is printed.
+ *
+ * @author Michal Sabo
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes={TestContext.class}, loader=AnnotationConfigContextLoader.class)
+public class ITConcurrency {
+
+    private static final int ITERATIONS = 10_000;
+
+    @Inject
+    private GenericApplicationContext applicationContext;
+
+    @Test
+    public void testScaling() throws Exception {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int threads = 1;
+        while (true) {
+            run(threads);
+            if (threads == cores) {
+                break;
+            }
+            threads = Math.min(threads * 2, cores);
+        }
+        Assert.assertEquals(1, LazySingletonComponent.INSTANCES.get());
+    }
+
+    @Test
+    public void testColdStart() throws Exception {
+        AtomicInteger discoveries = new AtomicInteger();
+        SpringInjector.get().addFieldValueFactory(new IFieldValueFactory() {
+            @Override
+            public Object getFieldValue(final Field field) {
+                return null;
+            }
+
+            @Override
+            public boolean supportsField(final Field field) {
+                if (field.getDeclaringClass() == ColdComponent.class) {
+                    discoveries.incrementAndGet();
+                }
+                return false;
+            }
+        });
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<ColdComponent>> injections = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                injections.add(executor.submit(() -> {
+                    start.await();
+                    return new ColdComponent();
+                }));
+            }
+            measure(start, injections);
+            for (Future<ColdComponent> injection : injections) {
+                Assert.assertEquals(42, injection.get().injectedComponent.answer());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        // the fields of the class are discovered by one thread only
+        Assert.assertEquals(1, discoveries.get());
+    }
+
+    @Test
+    public void testResolveWhileCreatingBean() throws Exception {
+        applicationContext.registerBean(LockedTarget.class, bd -> bd.setLazyInit(true));
+        applicationContext.registerBean(LockingBean.class, bd -> bd.setLazyInit(true));
+        TargetHolder holder = new TargetHolder();
+        FutureTask<Integer> resolution = new FutureTask<>(() -> holder.target.answer());
+        LockingBean.holder = holder;
+        LockingBean.resolver = daemon(resolution);
+
+        // the bean invokes the proxy while the other thread waits for the bean factory to locate its target
+        FutureTask<LockingBean> creation = new FutureTask<>(() -> applicationContext.getBean(LockingBean.class));
+        daemon(creation).start();
+        LockingBean bean = creation.get(30, TimeUnit.SECONDS);
+        Assert.assertTrue(bean.resolverBlocked);
+        Assert.assertEquals(42, bean.answer);
+        Assert.assertEquals(42, resolution.get(30, TimeUnit.SECONDS).intValue());
+    }
+
+    @Test
+    public void testProxyClassWhileCreatingBean() throws Exception {
+        applicationContext.registerBean(ProxiedTarget.class, bd -> bd.setLazyInit(true));
+        applicationContext.registerBean(LazyDependency.class, bd -> bd.setLazyInit(true));
+        applicationContext.registerBean(ProxyCreatingBean.class, bd -> bd.setLazyInit(true));
+        ProxiedTarget.context = applicationContext;
+        FutureTask<ProxiedTargetHolder> injection = new FutureTask<>(ProxiedTargetHolder::new);
+        ProxyCreatingBean.injector = daemon(injection);
+
+        // the bean needs a proxy of the class while the other thread constructs one waiting for the bean factory
+        FutureTask<ProxyCreatingBean> creation = new FutureTask<>(() -> applicationContext.getBean(ProxyCreatingBean.class));
+        daemon(creation).start();
+        ProxyCreatingBean bean = creation.get(30, TimeUnit.SECONDS);
+        Assert.assertTrue(bean.injectorBlocked);
+        Assert.assertEquals(42, bean.holder.target.answer());
+        Assert.assertEquals(42, injection.get(30, TimeUnit.SECONDS).target.answer());
+    }
+
+    private static Thread daemon(final Runnable task) {
+        Thread thread = new Thread(task);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private void run(final int threads) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<ConcurrentDependentComponent>> injections = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                injections.add(executor.submit(inject(start)));
+            }
+            long injectTime = measure(start, injections);
+
+            ConcurrentDependentComponent reference = injections.get(0).get();
+            int targetId = reference.getLazySingletonComponent().id();
+            for (Future<ConcurrentDependentComponent> injection : injections) {
+                ConcurrentDependentComponent component = injection.get();
+                Assert.assertSame(reference.getLazySingletonComponent(), component.getLazySingletonComponent());
+                Assert.assertSame(reference.getInjectedComponent(), component.getInjectedComponent());
+                Assert.assertEquals(targetId, component.getLazySingletonComponent().id());
+            }
+
+            start = new CountDownLatch(1);
+            List<Future<ConcurrentDependentComponent>> invocations = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                invocations.add(executor.submit(invoke(start, reference, targetId)));
+            }
+            long invokeTime = measure(start, invocations);
+
+            System.out.printf("threads: %3d, inject: %,12d ops/s, invoke: %,12d ops/s%n", threads,
+                    opsPerSecond(threads, injectTime), opsPerSecond(threads, invokeTime));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static Callable<ConcurrentDependentComponent> inject(final CountDownLatch start) {
+        return () -> {
+            start.await();
+            ConcurrentDependentComponent last = null;
+            for (int i = 0; i < ITERATIONS; i++) {
+                ConcurrentDependentComponent component = new ConcurrentDependentComponent();
+                Assert.assertNotNull(component.getLazySingletonComponent());
+                Assert.assertNotNull(component.getInjectedComponent());
+                Assert.assertNotNull(component.getPrototypeComponent());
+                last = component;
+            }
+            return last;
+        };
+    }
+
+    private static Callable<ConcurrentDependentComponent> invoke(final CountDownLatch start,
+                                                                 final ConcurrentDependentComponent component,
+                                                                 final int targetId) {
+        return () -> {
+            start.await();
+            for (int i = 0; i < ITERATIONS; i++) {
+                Assert.assertEquals(targetId, component.getLazySingletonComponent().id());
+                Assert.assertEquals(42, component.getInjectedComponent().answer());
+            }
+            return component;
+        };
+    }
+
+    private static long measure(final CountDownLatch start, final List<? extends Future<?>> futures) throws Exception {
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        return System.nanoTime() - begin;
+    }
+
+    private static long opsPerSecond(final int threads, final long nanos) {
+        return (long) threads * ITERATIONS * 1_000_000_000L / Math.max(nanos, 1);
+    }
+
+    public static class ColdComponent {
+        @Inject
+        private InjectedComponent injectedComponent;
+
+        public ColdComponent() {
+            SpringInjector.get().inject(this);
+        }
+    }
+
+    public static class LockedTarget {
+        public int answer() {
+            return 42;
+        }
+    }
+
+    public static class TargetHolder {
+        @Inject
+        private LockedTarget target;
+
+        public TargetHolder() {
+            SpringInjector.get().inject(this);
+        }
+    }
+
+    public static class LockingBean {
+        static volatile TargetHolder holder;
+        static volatile Thread resolver;
+
+        final boolean resolverBlocked;
+        final int answer;
+
+        // created under the singleton lock of the bean factory
+        public LockingBean() throws InterruptedException {
+            resolver.start();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (resolver.getState() != Thread.State.BLOCKED && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            resolverBlocked = resolver.getState() == Thread.State.BLOCKED;
+            answer = holder.target.answer();
+        }
+    }
+
+    public static class ProxiedTarget {
+        static volatile GenericApplicationContext context;
+
+        // also run by the constructor of the proxy, looks a bean up like an object injecting itself
+        public ProxiedTarget() {
+            context.getBean(LazyDependency.class);
+        }
+
+        public int answer() {
+            return 42;
+        }
+    }
+
+    public static class LazyDependency {
+    }
+
+    public static class ProxiedTargetHolder {
+        @Inject
+        private ProxiedTarget target;
+
+        public ProxiedTargetHolder() {
+            SpringInjector.get().inject(this);
+        }
+    }
+
+    public static class ProxyCreatingBean {
+        static volatile Thread injector;
+
+        final boolean injectorBlocked;
+        final ProxiedTargetHolder holder;
+
+        // created under the singleton lock of the bean factory
+        public ProxyCreatingBean() throws InterruptedException {
+            injector.start();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (injector.getState() != Thread.State.BLOCKED && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            injectorBlocked = injector.getState() == Thread.State.BLOCKED;
+            holder = new ProxiedTargetHolder();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.github.sabomichal.springinjector.test.it;
+
+import com.github.sabomichal.springinjector.ILazyInitProxy;
+import com.github.sabomichal.springinjector.test.TestContext;
+import net.sf.cglib.proxy.Factory;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.openjdk.jol.info.ClassLayout;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.support.AnnotationConfigContextLoader;
+import org.springframework.util.SerializationUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reports the heap taken by the injection plumbing (proxies, handlers and locators) per injected
+ * dependency, for freshly injected and for deserialized objects.
+ *
+ * @author Michal Sabo
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes={TestContext.class}, loader=AnnotationConfigContextLoader.class)
+public class ITFootprint {
+
+    private static final int COUNT = 1_000;
+    /**
+     * Less than a reference, i.e. the plumbing is shared rather than allocated per dependency
+     */
+    private static final long MAX_BYTES_PER_DEPENDENCY = 4;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFootprint() throws Exception {
+        ArrayList<DependentComponent> components = new ArrayList<>();
+        for (int i = 0; i < COUNT; i++) {
+            components.add(new DependentComponent());
+        }
+        Assert.assertEquals(42, components.get(0).answer());
+
+        List<DependentComponent> copies = (List<DependentComponent>) SerializationUtils.deserialize(
+                SerializationUtils.serialize(components));
+        Assert.assertEquals(42, copies.get(0).answer());
+
+        Object[] injected = dependencies(components);
+        Object[] deserialized = dependencies(copies);
+        for (int i = 0; i < COUNT; i++) {
+            Assert.assertSame(injected[0], injected[i]);
+            Assert.assertSame(injected[0], deserialized[i]);
+        }
+
+        long single = plumbingBytes(new Object[]{injected[0]});
+        long injectedBytes = plumbingBytes(injected);
+        long deserializedBytes = plumbingBytes(deserialized);
+        System.out.printf("plumbing of one dependency: %d B, injected: %.2f B/dependency, deserialized: %.2f B/dependency%n",
+                single, (double) injectedBytes / COUNT, (double) deserializedBytes / COUNT);
+
+        // the plumbing is shared, many dependencies take as much heap as a single one
+        Assert.assertTrue(single > 0);
+        Assert.assertEquals(single, injectedBytes);
+        Assert.assertEquals(single, deserializedBytes);
+        Assert.assertTrue(injectedBytes / COUNT < MAX_BYTES_PER_DEPENDENCY);
+        Assert.assertTrue(deserializedBytes / COUNT < MAX_BYTES_PER_DEPENDENCY);
+    }
+
+    private static Object[] dependencies(final List<DependentComponent> components) throws Exception {
+        Field field = DependentComponent.class.getDeclaredField("injectedComponent");
+        field.setAccessible(true);
+        Object[] dependencies = new Object[components.size()];
+        for (int i = 0; i < dependencies.length; i++) {
+            dependencies[i] = field.get(components.get(i));
+        }
+        return dependencies;
+    }
+
+    /**
+     * Sums the shallow sizes of the distinct proxies, their handlers and locators. The targets and
+     * the objects the locators refer to, e.g. the application context, are not plumbing.
+     */
+    private static long plumbingBytes(final Object[] dependencies) {
+        Set<Object> plumbing = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Object dependency : dependencies) {
+            plumbing.add(dependency);
+            if (Proxy.isProxyClass(dependency.getClass())) {
+                plumbing.add(Proxy.getInvocationHandler(dependency));
+            } else {
+                plumbing.addAll(Arrays.asList(((Factory) dependency).getCallbacks()));
+            }
+            plumbing.add(((ILazyInitProxy) dependency).getObjectLocator());
+        }
+        long bytes = 0;
+        for (Object object : plumbing) {
+            bytes += ClassLayout.parseInstance(object).instanceSize();
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,85 @@
+package com.github.sabomichal.springinjector.test.it;
+
+import com.github.sabomichal.springinjector.HibernateInjectionIntegrator;
+import com.github.sabomichal.springinjector.SpringInjector;
+import com.github.sabomichal.springinjector.test.TestContext;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.BootstrapServiceRegistryBuilder;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.support.AnnotationConfigContextLoader;
+
+import java.util.List;
+
+/**
+ * Loads entities not injecting themselves from an in-memory H2 database by a session factory
+ * with the injection integrator.
+ *
+ * @author Michal Sabo
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes={TestContext.class}, loader=AnnotationConfigContextLoader.class)
+public class ITHibernate {
+
+    private SessionFactory sessionFactory;
+
+    @Before
+    public void setUp() {
+        sessionFactory = new MetadataSources(new StandardServiceRegistryBuilder(
+                new BootstrapServiceRegistryBuilder().applyIntegrator(new HibernateInjectionIntegrator()).build())
+                .applySetting("hibernate.connection.url", "jdbc:h2:mem:it;DB_CLOSE_DELAY=-1")
+                .applySetting("hibernate.hbm2ddl.auto", "create-drop")
+                .build())
+                .addAnnotatedClass(EntityComponent.class)
+                .buildMetadata()
+                .buildSessionFactory();
+
+        try (Session session = sessionFactory.openSession()) {
+            session.beginTransaction();
+            for (long id = 0; id < 100; id++) {
+                session.persist(new EntityComponent(id, "entity" + id));
+            }
+            session.getTransaction().commit();
+        }
+    }
+
+    @After
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Test
+    public void testQuery() {
+        try (Session session = sessionFactory.openSession()) {
+            List<EntityComponent> entities = session.createQuery("from EntityComponent order by id",
+                    EntityComponent.class).getResultList();
+            Assert.assertEquals(100, entities.size());
+            for (EntityComponent entity : entities) {
+                Assert.assertEquals(42, entity.getInjectedComponent().answer());
+            }
+            // singleton proxies are shared by all rows
+            Assert.assertSame(entities.get(0).getInjectedComponent(), entities.get(99).getInjectedComponent());
+        }
+    }
+
+    @Test
+    public void testFindAfterClearCache() {
+        try (Session session = sessionFactory.openSession()) {
+            EntityComponent first = session.get(EntityComponent.class, 1L);
+            SpringInjector.get().clearCache();
+            EntityComponent second = session.get(EntityComponent.class, 2L);
+            Assert.assertEquals("entity2", second.getName());
+            Assert.assertEquals(42, second.getInjectedComponent().answer());
+            // the metadata bound before the caches were cleared are not used anymore
+            Assert.assertNotSame(first.getInjectedComponent(), second.getInjectedComponent());
+        }
+    }
+}
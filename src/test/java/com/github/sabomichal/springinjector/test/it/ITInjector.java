@@ -1,5 +1,11 @@
 package com.github.sabomichal.springinjector.test.it;
 
+import com.github.sabomichal.springinjector.CacheStats;
+import com.github.sabomichal.springinjector.Caches;
+import com.github.sabomichal.springinjector.ClockCache;
+import com.github.sabomichal.springinjector.IFieldValueFactory;
+import com.github.sabomichal.springinjector.InjectionEngine;
+import com.github.sabomichal.springinjector.SpringInjector;
 import com.github.sabomichal.springinjector.test.TestContext;
 import org.junit.Assert;
 import org.junit.Test;
@@ -9,10 +15,17 @@ import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.test.context.support.AnnotationConfigContextLoader;
 import org.springframework.util.SerializationUtils;
 
+import javax.inject.Inject;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 import static org.junit.Assert.fail;
 
@@ -72,4 +85,267 @@ public class ITInjector {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testSpringAnnotations() {
+        AnnotatedComponent ac = new AnnotatedComponent();
+        Assert.assertEquals(42, ac.getAutowiredComponent().answer());
+        Assert.assertEquals(42, ac.getQualifiedComponent().answer());
+        Assert.assertEquals(42, ac.getResourceComponent().answer());
+        // two beans of the type, the resource is resolved by the field name
+        Assert.assertEquals("bye", ac.getFarewell().get());
+        Assert.assertNull(ac.getOptionalComponent());
+    }
+
+    @Test
+    public void testValueInjection() {
+        for (int i = 0; i < 2; i++) {
+            ValueComponent vc = new ValueComponent();
+            Assert.assertEquals("spring-injector", vc.getName());
+            Assert.assertEquals(42, vc.getAnswer());
+            Assert.assertEquals(Long.valueOf(21), vc.getHalf());
+            Assert.assertEquals("default", vc.getMissing());
+        }
+    }
+
+    @Test
+    public void testMutableValueInjection() {
+        ValueComponent first = new ValueComponent();
+        first.getNames()[0] = "changed";
+        first.getNameList().clear();
+
+        // every object gets a value of its own, also once the class is frozen
+        for (int i = 0; i < 2; i++) {
+            ValueComponent vc = new ValueComponent();
+            Assert.assertArrayEquals(new String[]{"first", "second"}, vc.getNames());
+            Assert.assertEquals(Arrays.asList("first", "second"), vc.getNameList());
+            Assert.assertNotSame(first.getNames(), vc.getNames());
+            SpringInjector.get().freeze();
+        }
+        SpringInjector.get().clearCache();
+    }
+
+    @Test
+    public void testScopedInjection() throws InterruptedException {
+        ScopedDependentComponent first = new ScopedDependentComponent();
+        ScopedDependentComponent second = new ScopedDependentComponent();
+
+        // scoped beans share the proxy, which resolves the target of the current scope
+        Assert.assertSame(first.getThreadScopedComponent(), second.getThreadScopedComponent());
+        Assert.assertSame(Thread.currentThread(), first.getThreadScopedComponent().owner());
+        int id = first.getThreadScopedComponent().id();
+
+        Thread es = new Thread(() -> {
+            try {
+                Assert.assertSame(Thread.currentThread(), first.getThreadScopedComponent().owner());
+                Assert.assertNotEquals(id, first.getThreadScopedComponent().id());
+            } catch (Throwable e) {
+                exc = new Exception(e);
+            }
+        });
+        es.start();
+        es.join();
+        if (exc != null) {
+            fail(exc.getMessage());
+        }
+        Assert.assertEquals(id, second.getThreadScopedComponent().id());
+
+        // prototypes get a proxy and a target of their own
+        Assert.assertNotSame(first.getPrototypeComponent(), second.getPrototypeComponent());
+        Assert.assertEquals(first.getPrototypeComponent().id(), first.getPrototypeComponent().id());
+        Assert.assertNotEquals(first.getPrototypeComponent().id(), second.getPrototypeComponent().id());
+    }
+
+    @Test
+    public void testAsyncInjection() throws Exception {
+        AsyncComponent ac = SpringInjector.get().injectAsync(new AsyncComponent()).get();
+        Assert.assertNotNull(ac.injectedComponent);
+        Assert.assertNotNull(ac.scopedComponent);
+
+        SpringInjector.get().resolveAll(ac).get();
+        Assert.assertEquals(42, ac.injectedComponent.answer());
+        Assert.assertSame(Thread.currentThread(), ac.scopedComponent.owner());
+    }
+
+    @Test
+    public void testHierarchyInjection() {
+        SubComponent sc = new SubComponent();
+        Assert.assertEquals(42, sc.getBaseComponent().answer());
+        Assert.assertEquals(42, sc.getSubComponent().answer());
+
+        SubComponent lc = new SubComponent.LeafComponent();
+        Assert.assertEquals(42, lc.getBaseComponent().answer());
+        Assert.assertEquals(42, lc.getSubComponent().answer());
+    }
+
+    @Test
+    public void testAutowireEngine() {
+        AutowiredComponent ac = new AutowiredComponent();
+        Assert.assertSame(InjectedComponent.class, ac.getInjectedComponent().getClass());
+        Assert.assertEquals(42, ac.getInjectedComponent().answer());
+    }
+
+    @Test
+    public void testFreeze() {
+        ConcurrentDependentComponent warm = new ConcurrentDependentComponent();
+        new ValueComponent();
+        SpringInjector.get().freeze();
+        try {
+            ConcurrentDependentComponent frozen = new ConcurrentDependentComponent();
+            Assert.assertSame(warm.getInjectedComponent(), frozen.getInjectedComponent());
+            Assert.assertEquals(42, frozen.getInjectedComponent().answer());
+            // prototypes still get a proxy of their own
+            Assert.assertNotSame(warm.getPrototypeComponent(), frozen.getPrototypeComponent());
+
+            ValueComponent vc = new ValueComponent();
+            Assert.assertEquals(42, vc.getAnswer());
+            Assert.assertEquals("spring-injector", vc.getName());
+
+            // classes not injected before freezing are looked up as usual
+            Assert.assertEquals(42, new SubComponent.LeafComponent().getSubComponent().answer());
+        } finally {
+            SpringInjector.get().clearCache();
+        }
+    }
+
+    @Test
+    public void testPromotion() throws InterruptedException {
+        SpringInjector injector = SpringInjector.get();
+        injector.clearCache();
+        injector.setPromotionThreshold(3);
+        try {
+            long promotions = injector.getPromotionCount();
+            ConcurrentDependentComponent first = new ConcurrentDependentComponent();
+            for (int i = 0; i < 3; i++) {
+                new ConcurrentDependentComponent();
+            }
+            for (int i = 0; i < 100 && injector.getPromotionCount() == promotions; i++) {
+                Thread.sleep(50);
+            }
+            Assert.assertEquals(promotions + 1, injector.getPromotionCount());
+
+            ConcurrentDependentComponent promoted = new ConcurrentDependentComponent();
+            Assert.assertSame(first.getInjectedComponent(), promoted.getInjectedComponent());
+            Assert.assertEquals(42, promoted.getInjectedComponent().answer());
+            Assert.assertNotSame(first.getPrototypeComponent(), promoted.getPrototypeComponent());
+        } finally {
+            injector.setPromotionThreshold(1000);
+            injector.clearCache();
+        }
+    }
+
+    @Test
+    public void testRejectedPromotion() {
+        SpringInjector injector = SpringInjector.get();
+        Executor executor = injector.getExecutor();
+        injector.clearCache();
+        injector.setPromotionThreshold(3);
+        injector.setExecutor(task -> {
+            throw new RejectedExecutionException();
+        });
+        try {
+            long promotions = injector.getPromotionCount();
+            // the class stays unpromoted, the injection goes on
+            for (int i = 0; i < 10; i++) {
+                Assert.assertEquals(42, new ConcurrentDependentComponent().getInjectedComponent().answer());
+            }
+            Assert.assertEquals(promotions, injector.getPromotionCount());
+        } finally {
+            injector.setExecutor(executor);
+            injector.setPromotionThreshold(1000);
+            injector.clearCache();
+        }
+    }
+
+    @Test
+    public void testEngineChangedDuringDiscovery() {
+        SpringInjector injector = SpringInjector.get();
+        injector.addFieldValueFactory(new IFieldValueFactory() {
+            private boolean changed;
+
+            @Override
+            public Object getFieldValue(Field field) {
+                return null;
+            }
+
+            @Override
+            public boolean supportsField(Field field) {
+                if (!changed && field.getDeclaringClass() == DiscoveredComponent.class) {
+                    changed = true;
+                    injector.setDefaultEngine(InjectionEngine.AUTOWIRE);
+                }
+                return false;
+            }
+        });
+        try {
+            injector.inject(new DiscoveredComponent());
+            // the metadata discovered with the previous engine have not been cached
+            DiscoveredComponent component = new DiscoveredComponent();
+            injector.inject(component);
+            Assert.assertSame(InjectedComponent.class, component.injectedComponent.getClass());
+        } finally {
+            injector.setDefaultEngine(InjectionEngine.PROXY);
+        }
+    }
+
+    @Test
+    public void testCacheStats() {
+        new DependentComponent();
+        long hits = Caches.getStats().get(Caches.METADATA).getHitCount();
+        new DependentComponent();
+        Assert.assertTrue(Caches.getStats().get(Caches.METADATA).getHitCount() > hits);
+
+        CacheStats stats = new CacheStats();
+        ClockCache<Integer, Integer> cache = new ClockCache<>(2, stats);
+        cache.put(1, 1);
+        cache.put(2, 2);
+        Assert.assertEquals(Integer.valueOf(1), cache.get(1));
+        cache.put(3, 3);
+        // the referenced entry gets a second chance
+        Assert.assertEquals(Integer.valueOf(1), cache.get(1));
+        Assert.assertNull(cache.get(2));
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals(1, stats.getEvictionCount());
+    }
+
+    @Test
+    public void testCustomFieldValueFactory() {
+        SpringInjector.get().addFieldValueFactory(new IFieldValueFactory() {
+            @Override
+            public Object getFieldValue(Field field) {
+                return "custom";
+            }
+
+            @Override
+            public boolean supportsField(Field field) {
+                return field.isAnnotationPresent(Custom.class);
+            }
+        });
+
+        CustomComponent cc = new CustomComponent();
+        SpringInjector.get().inject(cc);
+        Assert.assertEquals("custom", cc.value);
+        Assert.assertEquals(42, new DependentComponent().answer());
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    private @interface Custom {
+    }
+
+    private static class AsyncComponent {
+        @Inject
+        private InjectedComponent injectedComponent;
+
+        @Inject
+        private ThreadScopedComponent scopedComponent;
+    }
+
+    private static class DiscoveredComponent {
+        @Inject
+        private InjectedComponent injectedComponent;
+    }
+
+    private static class CustomComponent {
+        @Custom
+        private String value;
+    }
+}
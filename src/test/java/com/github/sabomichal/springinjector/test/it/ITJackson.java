@@ -0,0 +1,61 @@
+package com.github.sabomichal.springinjector.test.it;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.sabomichal.springinjector.Caches;
+import com.github.sabomichal.springinjector.JacksonInjectionModule;
+import com.github.sabomichal.springinjector.test.TestContext;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.support.AnnotationConfigContextLoader;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Deserializes objects not injecting themselves by an object mapper with the injection module.
+ *
+ * @author Michal Sabo
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes={TestContext.class}, loader=AnnotationConfigContextLoader.class)
+public class ITJackson {
+
+    private final ObjectMapper mapper = new ObjectMapper().registerModule(new JacksonInjectionModule());
+
+    @Test
+    public void testObject() throws Exception {
+        JsonComponent component = mapper.readValue("{\"name\":\"single\"}", JsonComponent.class);
+        Assert.assertEquals("single", component.getName());
+        Assert.assertEquals(42, component.getInjectedComponent().answer());
+    }
+
+    @Test
+    public void testCollections() throws Exception {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 100; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"name\":\"").append(i).append("\"}");
+        }
+        json.append(']');
+
+        mapper.readValue("[]", JsonComponent[].class);
+        long lookups = Caches.getStats().get(Caches.METADATA).getHitCount();
+        List<JsonComponent> list = mapper.readValue(json.toString(), new TypeReference<List<JsonComponent>>() {});
+        // the elements are injected in one batch, looking the metadata up once
+        Assert.assertTrue(Caches.getStats().get(Caches.METADATA).getHitCount() - lookups < 10);
+        Assert.assertEquals(100, list.size());
+        for (JsonComponent component : list) {
+            Assert.assertEquals(42, component.getInjectedComponent().answer());
+        }
+
+        JsonComponent[] array = mapper.readValue(json.toString(), JsonComponent[].class);
+        Assert.assertEquals(42, array[99].getInjectedComponent().answer());
+
+        Map<String, List<JsonComponent>> nested = mapper.readValue("{\"a\":" + json + "}",
+                new TypeReference<Map<String, List<JsonComponent>>>() {});
+        Assert.assertEquals(42, nested.get("a").get(0).getInjectedComponent().answer());
+    }
+}
@@ -0,0 +1,76 @@
+package com.github.sabomichal.springinjector.test.it;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import com.github.sabomichal.springinjector.ILazyInitProxy;
+import com.github.sabomichal.springinjector.KryoSerializers;
+import com.github.sabomichal.springinjector.SpringInjector;
+import com.github.sabomichal.springinjector.test.TestContext;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.context.support.AnnotationConfigContextLoader;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stores injected objects serialized by Kryo in an in-memory store and reads them back by another
+ * Kryo instance.
+ *
+ * @author Michal Sabo
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes={TestContext.class}, loader=AnnotationConfigContextLoader.class)
+public class ITKryo {
+
+    private final Map<String, byte[]> store = new HashMap<>();
+
+    @Test
+    public void testRoundTrip() {
+        KryoComponent component = new KryoComponent();
+        put("component", component);
+
+        KryoComponent read = (KryoComponent) get("component");
+        Assert.assertNotSame(component, read);
+        // proxies of singletons are canonicalized
+        Assert.assertSame(component.getInjectedComponent(), read.getInjectedComponent());
+        Assert.assertSame(component.getAnswerProvider(), read.getAnswerProvider());
+        Assert.assertEquals(42, read.getInjectedComponent().answer());
+        Assert.assertEquals(42, read.getAnswerProvider().answer());
+        Assert.assertTrue(read.getPrototypeComponent() instanceof ILazyInitProxy);
+        // a prototype proxy gets a target of its own
+        Assert.assertNotSame(component.getPrototypeComponent(), read.getPrototypeComponent());
+        Assert.assertNotEquals(component.getPrototypeComponent().id(), read.getPrototypeComponent().id());
+    }
+
+    @Test
+    public void testReadWithoutSharedProxies() {
+        put("component", new KryoComponent());
+        SpringInjector.get().clearCache();
+
+        KryoComponent read = (KryoComponent) get("component");
+        Assert.assertTrue(read.getInjectedComponent() instanceof ILazyInitProxy);
+        Assert.assertEquals(42, read.getInjectedComponent().answer());
+        Assert.assertEquals(42, read.getAnswerProvider().answer());
+    }
+
+    private void put(final String key, final Object value) {
+        Output output = new Output(256, -1);
+        createKryo().writeClassAndObject(output, value);
+        store.put(key, output.toBytes());
+    }
+
+    private Object get(final String key) {
+        return createKryo().readClassAndObject(new Input(store.get(key)));
+    }
+
+    private static Kryo createKryo() {
+        Kryo kryo = KryoSerializers.createKryo();
+        kryo.register(KryoComponent.class);
+        return kryo;
+    }
+}
@@ -0,0 +1,80 @@
+package com.github.sabomichal.springinjector.test.it;
+
+import com.github.sabomichal.springinjector.NativeImageMetadataGenerator;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Callable;
+
+/**
+ * Generates native-image metadata for the test components and checks their content.
+ *
+ * @author Michal Sabo
+ */
+public class ITNativeImageMetadata {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testGeneratedMetadata() throws IOException {
+        NativeImageMetadataGenerator generator = new NativeImageMetadataGenerator(getClass().getClassLoader());
+        generator.scan("com.github.sabomichal.springinjector.test");
+        Path dir = folder.getRoot().toPath().resolve("META-INF/native-image");
+        generator.write(dir);
+
+        String reflect = read(dir.resolve("reflect-config.json"));
+        Assert.assertTrue(reflect.contains("{\"name\":\"" + DependentComponent.class.getName() + "\",\"allDeclaredFields\":true}"));
+        Assert.assertTrue(reflect.contains("{\"name\":\"" + AbstractBaseComponent.class.getName() + "\",\"allDeclaredFields\":true}"));
+        Assert.assertTrue(reflect.contains("{\"name\":\"" + ValueComponent.class.getName() + "\""));
+        Assert.assertTrue(reflect.contains("{\"name\":\"" + AutowiredComponent.class.getName() + "\",\"allDeclaredFields\":true,\"allDeclaredMethods\":true"));
+        Assert.assertTrue(reflect.contains("{\"name\":\"java.util.concurrent.Callable\",\"allPublicMethods\":true}"));
+        Assert.assertFalse(reflect.contains(InjectedComponent.class.getName() + "\""));
+
+        String proxy = read(dir.resolve("proxy-config.json"));
+        Assert.assertTrue(proxy.contains("{\"interfaces\":[\"java.util.concurrent.Callable\",\"java.io.Serializable\","
+                + "\"com.github.sabomichal.springinjector.ILazyInitProxy\","
+                + "\"com.github.sabomichal.springinjector.LazyInitProxyFactory$IWriteReplace\"]}"));
+
+        String serialization = read(dir.resolve("serialization-config.json"));
+        Assert.assertTrue(serialization.contains("{\"name\":\"" + DependentComponent.class.getName() + "\"}"));
+        Assert.assertTrue(serialization.contains("{\"name\":\"com.github.sabomichal.springinjector.SpringBeanLocator\"}"));
+        Assert.assertFalse(serialization.contains(InterfaceComponent.class.getName()));
+        // the locator of the generic field is serialized with the type proxies of its resolvable type
+        Assert.assertTrue(serialization.contains("{\"name\":\"" + GenericComponent.class.getName() + "\"}"));
+        Assert.assertTrue(serialization.contains("{\"name\":\"org.springframework.core.SerializableTypeWrapper$FieldTypeProvider\"}"));
+        Assert.assertTrue(serialization.contains("{\"name\":\"org.springframework.core.SerializableTypeWrapper$TypeProxyInvocationHandler\"}"));
+        Assert.assertTrue(serialization.contains("{\"interfaces\":[\"java.lang.reflect.ParameterizedType\","
+                + "\"org.springframework.core.SerializableTypeWrapper$SerializableTypeProxy\",\"java.io.Serializable\"]}"));
+
+        Assert.assertTrue(generator.getUnsupportedFields().contains(DependentComponent.class.getName()
+                + ".injectedComponent (" + InjectedComponent.class.getName() + ")"));
+        for (String field : generator.getUnsupportedFields()) {
+            Assert.assertFalse(field.startsWith(InterfaceComponent.class.getName()));
+        }
+    }
+
+    private static String read(final Path file) throws IOException {
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+
+    public static class InterfaceComponent {
+        @Inject
+        private Callable<String> task;
+    }
+
+    public static class GenericComponent implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        @Inject
+        private Callable<String> task;
+    }
+}
@@ -0,0 +1,36 @@
+package com.github.sabomichal.springinjector.test.it;
+
+import com.github.sabomichal.springinjector.test.TestContext;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+/**
+ * Checks that proxies injected in one application context call the beans of the context that
+ * replaced it.
+ *
+ * @author Michal Sabo
+ */
+public class ITRefresh {
+
+    @Test
+    public void testTargetRevalidation() {
+        ConcurrentDependentComponent component;
+        int firstId;
+        try (AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(TestContext.class)) {
+            component = new ConcurrentDependentComponent();
+            firstId = component.getLazySingletonComponent().id();
+            Assert.assertEquals(firstId, component.getLazySingletonComponent().id());
+            Assert.assertEquals(1, LazySingletonComponent.INSTANCES.get());
+            Assert.assertEquals(ctx.getBean(LazySingletonComponent.class).id(), firstId);
+        }
+
+        try (AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(TestContext.class)) {
+            int secondId = component.getLazySingletonComponent().id();
+            Assert.assertNotEquals(firstId, secondId);
+            Assert.assertEquals(2, LazySingletonComponent.INSTANCES.get());
+            Assert.assertEquals(ctx.getBean(LazySingletonComponent.class).id(), secondId);
+            Assert.assertEquals(42, component.getInjectedComponent().answer());
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.github.sabomichal.springinjector.test.it;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.sabomichal.boot.springinjector.SpringInjectorConfigurer;
+import com.github.sabomichal.boot.springinjector.SpringInjectorEndpoint;
+import com.github.sabomichal.boot.springinjector.SpringInjectorProperties;
+import com.github.sabomichal.boot.springinjector.SpringInjectorWarmUp;
+import com.github.sabomichal.springinjector.Caches;
+import com.github.sabomichal.springinjector.ICacheFactory;
+import com.github.sabomichal.springinjector.InjectorDiagnostics;
+import com.github.sabomichal.springinjector.SpringInjector;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Spring Boot application with the injector auto-configured by properties and the diagnostics
+ * endpoint exposed.
+ *
+ * @author Michal Sabo
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {
+        "spring-injector.promotion-threshold=0",
+        "spring-injector.warm-up-packages=com.github.sabomichal.springinjector.test.it",
+        "spring-injector.executor-bean=injectorExecutor",
+        "spring-injector.cache.maximum-sizes.locators=2",
+        "spring-injector.cache.maximum-sizes.canonical-locators=1",
+        "management.endpoints.web.exposure.include=" + SpringInjectorEndpoint.ID
+})
+public class ITSpringBoot {
+
+    private static final AtomicInteger TASKS = new AtomicInteger();
+
+    @Autowired
+    private SpringInjector injector;
+
+    @Autowired
+    private SpringInjectorWarmUp warmUp;
+
+    @Autowired
+    private SpringInjectorEndpoint endpoint;
+
+    @Test
+    public void testAutoConfiguration() throws Exception {
+        Assert.assertSame(SpringInjector.get(), injector);
+        warmUp.getCompletion().join();
+        // the warm-up ran on the configured executor
+        Assert.assertTrue(TASKS.get() > 0);
+        Assert.assertEquals(42, new DependentComponent().answer());
+
+        InjectorDiagnostics diagnostics = endpoint.diagnostics();
+        Assert.assertFalse(diagnostics.getMetadataCacheSizes().isEmpty());
+        Assert.assertFalse(diagnostics.getSharedProxies().isEmpty());
+        // the locator cache is bounded by the properties
+        Assert.assertTrue(diagnostics.getLocators().size() <= 2);
+        Assert.assertTrue(diagnostics.getCacheStats().get(Caches.LOCATORS).getEvictionCount() > 0);
+        // the static caches are created by the configured factory on refresh
+        Assert.assertTrue(diagnostics.getCacheStats().get(Caches.CANONICAL_LOCATORS).getEvictionCount() > 0);
+        Assert.assertEquals(0, diagnostics.getPromotionCount());
+        // rendered by the actuator as JSON
+        Assert.assertTrue(new ObjectMapper().writeValueAsString(diagnostics).contains("\"resolutionStats\""));
+    }
+
+    @Test
+    public void testCacheFactoryRestored() {
+        ICacheFactory factory = Caches.getFactory();
+        // unbounded properties replace the factory as well, so that no bounds are inherited
+        SpringInjectorConfigurer configurer = new SpringInjectorConfigurer(new SpringInjectorProperties());
+        configurer.postProcessBeforeInstantiation(SpringInjector.class, "springInjector");
+        Assert.assertNotSame(factory, Caches.getFactory());
+        configurer.destroy();
+        Assert.assertSame(factory, Caches.getFactory());
+    }
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @ComponentScan(basePackageClasses = ITSpringBoot.class, useDefaultFilters = false,
+            includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE,
+                    classes = {InjectedComponent.class, PrototypeComponent.class}))
+    static class Application {
+        @Bean
+        public Executor injectorExecutor() {
+            return task -> {
+                TASKS.incrementAndGet();
+                new Thread(task).start();
+            };
+        }
+    }
+}
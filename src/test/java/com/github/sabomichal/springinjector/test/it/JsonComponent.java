@@ -0,0 +1,29 @@
+package com.github.sabomichal.springinjector.test.it;
+
+import javax.inject.Inject;
+
+/**
+ * Injected by the Jackson module when deserialized, so it does not inject itself
+ *
+ * @author Michal Sabo
+ *
+ */
+public class JsonComponent {
+
+	private String name;
+
+	@Inject
+	private InjectedComponent injectedComponent;
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public InjectedComponent getInjectedComponent() {
+		return injectedComponent;
+	}
+}
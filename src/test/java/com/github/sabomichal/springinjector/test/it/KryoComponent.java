@@ -0,0 +1,37 @@
+package com.github.sabomichal.springinjector.test.it;
+
+import com.github.sabomichal.springinjector.SpringInjector;
+
+import javax.inject.Inject;
+
+/**
+ * @author Michal Sabo
+ *
+ */
+public class KryoComponent {
+
+	@Inject
+	private InjectedComponent injectedComponent;
+
+	@Inject
+	private AnswerProvider answerProvider;
+
+	@Inject
+	private PrototypeComponent prototypeComponent;
+
+	public KryoComponent() {
+		SpringInjector.get().inject(this);
+	}
+
+	public InjectedComponent getInjectedComponent() {
+		return injectedComponent;
+	}
+
+	public AnswerProvider getAnswerProvider() {
+		return answerProvider;
+	}
+
+	public PrototypeComponent getPrototypeComponent() {
+		return prototypeComponent;
+	}
+}
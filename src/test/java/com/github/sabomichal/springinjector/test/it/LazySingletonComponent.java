@@ -0,0 +1,28 @@
+package com.github.sabomichal.springinjector.test.it;
+
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Michal Sabo
+ *
+ */
+@Lazy
+@Component
+public class LazySingletonComponent {
+
+	public static final AtomicInteger INSTANCES = new AtomicInteger();
+
+	public LazySingletonComponent() {
+		// lazy init proxies subclass this component, count only the real instances
+		if (getClass() == LazySingletonComponent.class) {
+			INSTANCES.incrementAndGet();
+		}
+	}
+
+	public int id() {
+		return System.identityHashCode(this);
+	}
+}
@@ -0,0 +1,17 @@
+package com.github.sabomichal.springinjector.test.it;
+
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Component;
+
+/**
+ * @author Michal Sabo
+ *
+ */
+@Component
+@Scope("prototype")
+public class PrototypeComponent {
+
+	public int id() {
+		return System.identityHashCode(this);
+	}
+}
@@ -0,0 +1,30 @@
+package com.github.sabomichal.springinjector.test.it;
+
+import com.github.sabomichal.springinjector.SpringInjector;
+
+import javax.inject.Inject;
+
+/**
+ * @author Michal Sabo
+ *
+ */
+public class ScopedDependentComponent {
+
+	@Inject
+	private ThreadScopedComponent threadScopedComponent;
+
+	@Inject
+	private PrototypeComponent prototypeComponent;
+
+	public ScopedDependentComponent() {
+		SpringInjector.get().inject(this);
+	}
+
+	public ThreadScopedComponent getThreadScopedComponent() {
+		return threadScopedComponent;
+	}
+
+	public PrototypeComponent getPrototypeComponent() {
+		return prototypeComponent;
+	}
+}
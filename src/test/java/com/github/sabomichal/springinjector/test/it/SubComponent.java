@@ -0,0 +1,20 @@
+package com.github.sabomichal.springinjector.test.it;
+
+import javax.inject.Inject;
+
+/**
+ * @author Michal Sabo
+ *
+ */
+public class SubComponent extends AbstractBaseComponent {
+
+	@Inject
+	private InjectedComponent subComponent;
+
+	public InjectedComponent getSubComponent() {
+		return subComponent;
+	}
+
+	public static class LeafComponent extends SubComponent {
+	}
+}
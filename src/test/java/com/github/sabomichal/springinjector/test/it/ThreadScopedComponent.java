@@ -0,0 +1,21 @@
+package com.github.sabomichal.springinjector.test.it;
+
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Component;
+
+/**
+ * @author Michal Sabo
+ *
+ */
+@Component
+@Scope("thread")
+public class ThreadScopedComponent {
+
+	public Thread owner() {
+		return Thread.currentThread();
+	}
+
+	public int id() {
+		return System.identityHashCode(this);
+	}
+}
@@ -0,0 +1,59 @@
+package com.github.sabomichal.springinjector.test.it;
+
+import com.github.sabomichal.springinjector.SpringInjector;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.List;
+
+/**
+ * @author Michal Sabo
+ *
+ */
+public class ValueComponent {
+
+	@Value("${injector.name}")
+	private String name;
+
+	@Value("${injector.answer}")
+	private int answer;
+
+	@Value("#{${injector.answer} / 2}")
+	private Long half;
+
+	@Value("${injector.missing:default}")
+	private String missing;
+
+	@Value("${injector.names}")
+	private String[] names;
+
+	@Value("#{'${injector.names}'.split(',')}")
+	private List<String> nameList;
+
+	public ValueComponent() {
+		SpringInjector.get().inject(this);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public int getAnswer() {
+		return answer;
+	}
+
+	public Long getHalf() {
+		return half;
+	}
+
+	public String getMissing() {
+		return missing;
+	}
+
+	public String[] getNames() {
+		return names;
+	}
+
+	public List<String> getNameList() {
+		return nameList;
+	}
+}